@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for the bookstore API. Runs as a single-file
+ * program, so it needs nothing but a JDK:
+ *
+ * <pre>
+ * java loadtest/LoadTest.java seed --books 100000
+ * java loadtest/LoadTest.java run --concurrency 400 --duration 60 --label platform
+ * </pre>
+ *
+ * {@code seed} bulk-imports a deterministic catalog, {@code run} keeps
+ * {@code concurrency} clients busy with a mix of catalog reads and prints
+ * throughput and latency percentiles as one JSON line per run.
+ */
+public class LoadTest {
+
+    private static final String[] GENRES = {"Fantasy", "Mystery", "Romance", "Science Fiction", "Horror",
+            "Biography", "History", "Poetry", "Thriller", "Travel"};
+    private static final String[] WORDS = {"Silent", "River", "Hidden", "Kingdom", "Golden", "Shadow", "Broken",
+            "Garden", "Frozen", "Tower", "Ancient", "Harbor", "Secret", "Storm", "Distant", "Island"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: LoadTest seed|run [--url http://localhost:8282] [options]");
+            System.exit(2);
+        }
+        Map<String, String> options = options(args);
+        String url = options.getOrDefault("url", "http://localhost:8282");
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        switch (args[0]) {
+            case "seed" -> seed(client, url, Integer.parseInt(options.getOrDefault("books", "100000")));
+            case "run" -> run(client, url,
+                    Integer.parseInt(options.getOrDefault("concurrency", "400")),
+                    Integer.parseInt(options.getOrDefault("warmup", "15")),
+                    Integer.parseInt(options.getOrDefault("duration", "60")),
+                    Integer.parseInt(options.getOrDefault("books", "100000")),
+                    options.getOrDefault("label", "run"));
+            default -> throw new IllegalArgumentException("Unknown command " + args[0]);
+        }
+    }
+
+    private static void seed(HttpClient client, String url, int books) throws IOException, InterruptedException {
+        StringBuilder authors = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            authors.append("{\"name\":\"Load Author ").append(i).append("\",\"email\":\"load.author").append(i)
+                    .append("@email.com\",\"nationality\":\"Nationality ").append(i % 20).append("\"}\n");
+        }
+        System.out.println(post(client, url + "/api/authors/bulk", authors.toString()));
+
+        Random random = new Random(42);
+        StringBuilder chunk = new StringBuilder();
+        for (int i = 0; i < books; i++) {
+            chunk.append("{\"title\":\"").append(WORDS[random.nextInt(WORDS.length)]).append(' ')
+                    .append(WORDS[random.nextInt(WORDS.length)]).append(' ').append(i)
+                    .append("\",\"isbn\":\"LOAD-").append(i)
+                    .append("\",\"publicationYear\":").append(1900 + random.nextInt(125))
+                    .append(",\"price\":").append(5 + random.nextInt(95)).append(".99")
+                    .append(",\"genre\":\"").append(GENRES[random.nextInt(GENRES.length)])
+                    .append("\",\"pageCount\":").append(50 + random.nextInt(900))
+                    .append(",\"authorId\":").append(1 + random.nextInt(4)).append("}\n");
+            if ((i + 1) % 50_000 == 0 || i == books - 1) {
+                System.out.println(post(client, url + "/api/books/bulk", chunk.toString()));
+                chunk.setLength(0);
+            }
+        }
+    }
+
+    private static void run(HttpClient client, String url, int concurrency, int warmupSeconds, int durationSeconds,
+                            int books, String label) throws InterruptedException {
+        AtomicBoolean measuring = new AtomicBoolean(false);
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        int[] counts = new int[concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int c = 0; c < concurrency; c++) {
+            long[] samples = new long[1 << 16];
+            latencies.add(samples);
+            int worker = c;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(worker);
+                long[] own = samples;
+                try {
+                    while (!stopped.get()) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(url + nextPath(random, books)))
+                                .timeout(Duration.ofSeconds(30)).GET().build();
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500;
+                        } catch (IOException e) {
+                            ok = false;
+                        }
+                        long elapsed = System.nanoTime() - start;
+                        if (measuring.get()) {
+                            if (!ok) {
+                                errors.incrementAndGet();
+                            }
+                            if (counts[worker] == own.length) {
+                                own = Arrays.copyOf(own, own.length * 2);
+                                latencies.set(worker, own);
+                            }
+                            own[counts[worker]++] = elapsed;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        Thread.sleep(warmupSeconds * 1000L);
+        measuring.set(true);
+        long start = System.nanoTime();
+        Thread.sleep(durationSeconds * 1000L);
+        measuring.set(false);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        stopped.set(true);
+        done.await();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < concurrency; c++) {
+            System.arraycopy(latencies.get(c), 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        System.out.printf("{\"label\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,"
+                        + "\"throughput\":%.1f,\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}%n",
+                label, concurrency, total, errors.get(), total / seconds,
+                percentile(all, 0.50), percentile(all, 0.99), total == 0 ? 0 : all[total - 1] / 1e6);
+    }
+
+    // 40% page listing, 30% lookup by id, 15% filtered listing, 10% title search, 5% author lookup
+    private static String nextPath(Random random, int books) {
+        int pick = random.nextInt(100);
+        if (pick < 40) {
+            return "/api/books?page=" + random.nextInt(50) + "&size=20&sortBy=title";
+        } else if (pick < 70) {
+            return "/api/books/" + (51 + random.nextInt(books));
+        } else if (pick < 85) {
+            return "/api/books?genre=" + GENRES[random.nextInt(GENRES.length)].replace(" ", "%20")
+                    + "&minPrice=10&maxPrice=" + (20 + random.nextInt(80)) + "&size=20";
+        } else if (pick < 95) {
+            return "/api/books/search?title=" + WORDS[random.nextInt(WORDS.length)].toLowerCase() + "%20"
+                    + WORDS[random.nextInt(WORDS.length)].toLowerCase();
+        }
+        return "/api/authors/" + (1 + random.nextInt(4));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static String post(HttpClient client, String url, String ndjson) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/x-ndjson")
+                .timeout(Duration.ofMinutes(10))
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson))
+                .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        return body.length() > 200 ? body.substring(0, 200) + "..." : body;
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,40 @@
+#!/bin/sh
+# Runs the same load against the application started with each profile in MODES, by default
+# platform-thread and virtual-thread request handling.
+# Usage: [MODES="platform production"] [ROUNDS=3] loadtest/compare.sh [books] [concurrency] [seconds]
+# A mode is a comma-separated profile list (e.g. virtual-threads,production); "platform" is the
+# default configuration. Virtual-thread runs need Java 21: set JAVA to a Java 21 binary if `java` is older.
+# With ROUNDS > 1 the modes take turns, so drift on a noisy machine hits them alike; compare medians.
+set -e
+BOOKS=${1:-100000}
+CONCURRENCY=${2:-400}
+DURATION=${3:-60}
+JAVA=${JAVA:-java}
+MODES=${MODES:-platform virtual-threads}
+ROUNDS=${ROUNDS:-1}
+URL=http://localhost:8282
+
+cd "$(dirname "$0")/.."
+JAR=target/bookstore-api-1.0.0.jar
+[ -f "$JAR" ] || mvn -B -q package -DskipTests
+
+for ROUND in $(seq 1 "$ROUNDS"); do
+    for MODE in $MODES; do
+        # File-backed profiles start from an empty database each run, so every mode sees the same catalog
+        rm -rf "target/loadtest-data/$MODE"
+        "$JAVA" -Xmx2g -jar "$JAR" --spring.profiles.active="$MODE" --spring.jpa.show-sql=false \
+            --logging.level.com.bookstore=INFO --bookstore.data-dir="./target/loadtest-data/$MODE" \
+            > "target/loadtest-$MODE.log" 2>&1 &
+        APP=$!
+        for i in $(seq 1 120); do
+            curl -sf "$URL/actuator/health/readiness" > /dev/null && break
+            kill -0 $APP 2> /dev/null || { echo "$MODE: app failed to start, see target/loadtest-$MODE.log"; exit 1; }
+            sleep 1
+        done
+        java loadtest/LoadTest.java seed --url "$URL" --books "$BOOKS" > /dev/null
+        java loadtest/LoadTest.java run --url "$URL" --books "$BOOKS" --concurrency "$CONCURRENCY" \
+            --duration "$DURATION" --label "$MODE" | tee -a target/loadtest-results.jsonl
+        kill $APP
+        wait $APP || true
+    done
+done
@@ -0,0 +1,55 @@
+#!/bin/sh
+# Restarts the application ROUNDS times in each of MODES and reports the application.ready.time
+# gauge of every start, which includes the cache warm-up: "jar" runs the packaged jar, "cds" an
+# unpacked class path with a class data sharing archive recorded by a training run.
+# Usage: [MODES="jar cds"] [ROUNDS=3] [PROFILES=production,fast-start] [AOT=true] loadtest/startup.sh
+# AOT=true adds -Dspring.aot.enabled=true to every run and needs a jar built with
+# mvn -Paot package -Dspring.aot.profiles=<the same PROFILES>.
+set -e
+JAVA=${JAVA:-java}
+MODES=${MODES:-jar cds}
+ROUNDS=${ROUNDS:-3}
+PROFILES=${PROFILES:-production,fast-start}
+URL=http://localhost:8282
+
+cd "$(dirname "$0")/.."
+JAR=target/bookstore-api-1.0.0.jar
+[ -f "$JAR" ] || mvn -B -q package -DskipTests
+DATA=target/startup-data
+CDS=target/cds
+OPTS=""
+[ "$AOT" = "true" ] && OPTS="-Dspring.aot.enabled=true"
+
+# CDS only archives classes loaded from plain jar files, not from the jars nested in the packaged
+# one, so the application classes and libraries are unpacked into a class path of their own
+rm -rf "$CDS" && mkdir -p "$CDS/unpacked"
+(cd "$CDS/unpacked" && jar xf ../../../"$JAR")
+(cd "$CDS/unpacked/BOOT-INF/classes" && jar cf ../../../application.jar .)
+mv "$CDS/unpacked/BOOT-INF/lib" "$CDS/lib"
+CP="$CDS/application.jar$(for LIB in "$CDS"/lib/*.jar; do printf ':%s' "$LIB"; done)"
+MAIN=$(sed -n 's/^Start-Class: *//p' "$CDS/unpacked/META-INF/MANIFEST.MF" | tr -d '\r')
+
+# The training run migrates the database, warms up and exits; the JVM writes the archive on exit
+"$JAVA" $OPTS -XX:ArchiveClassesAtExit="$CDS/app.jsa" -cp "$CP" "$MAIN" --spring.profiles.active="$PROFILES" \
+    --bookstore.data-dir="./$DATA" --bookstore.warmup.exit=true > target/startup-training.log 2>&1
+
+for ROUND in $(seq 1 "$ROUNDS"); do
+    for MODE in $MODES; do
+        case "$MODE" in
+            jar) LAUNCH="-jar $JAR" ;;
+            cds) LAUNCH="-XX:SharedArchiveFile=$CDS/app.jsa -cp $CP $MAIN" ;;
+            *) echo "Unknown mode $MODE"; exit 1 ;;
+        esac
+        "$JAVA" $OPTS $LAUNCH --spring.profiles.active="$PROFILES" --bookstore.data-dir="./$DATA" \
+            > "target/startup-$MODE.log" 2>&1 &
+        APP=$!
+        until curl -sf "$URL/actuator/health/readiness" > /dev/null; do
+            kill -0 $APP 2> /dev/null || { echo "$MODE: app failed to start, see target/startup-$MODE.log"; exit 1; }
+            sleep 1
+        done
+        READY=$(curl -s "$URL/actuator/prometheus" | sed -n 's/^application_ready_time_seconds{.*} //p')
+        echo "{\"label\":\"$MODE\",\"round\":$ROUND,\"readySeconds\":$READY}" | tee -a target/startup-results.jsonl
+        kill $APP
+        wait $APP || true
+    done
+done
@@ -0,0 +1,96 @@
+package com.bookstore.dto;
+
+import com.bookstore.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of a {@code Page<BookDTO>} as returned by GET /api/books, with
+ * object mappers configured like the application's: JSON, JSON gzipped as the
+ * server compresses it, CBOR, Smile, and the columnar layout in JSON and CBOR.
+ * The size of each body is printed once during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+	@Param({"20", "100"})
+	private int pageSize;
+
+	@Param({"json", "json-gzip", "cbor", "smile", "columnar-json", "columnar-cbor"})
+	private String format;
+
+	private ObjectMapper objectMapper;
+
+	private BookService bookService;
+
+	private Page<BookDTO> page;
+
+	@Setup
+	public void setUp() throws IOException {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		if (format.endsWith("cbor")) {
+			builder.factory(new CBORFactory());
+		} else if (format.equals("smile")) {
+			builder.factory(new SmileFactory());
+		}
+		objectMapper = builder.build();
+		bookService = new BookService();
+		List<BookDTO> books = new ArrayList<>(pageSize);
+		LocalDateTime now = LocalDateTime.now();
+		for (long i = 1; i <= pageSize; i++) {
+			books.add(new BookDTO(i, "Book Title " + i, "978-" + (1_000_000_000L + i), "Description of book " + i,
+					1950 + (int) (i % 70), new BigDecimal("19.99"), "Fantasy", 300, "Publisher",
+					now, now, i % 10, "Author " + (i % 10)));
+		}
+		page = new PageImpl<>(books, PageRequest.of(0, pageSize, Sort.by("title")), 100_000);
+		System.out.println("# " + format + " body of " + pageSize + " books: " + serializePage().length + " bytes");
+	}
+
+	@Benchmark
+	public byte[] serializePage() throws IOException {
+		if (format.startsWith("columnar")) {
+			return objectMapper.writeValueAsBytes(bookService.convertToColumns(page));
+		}
+		if (format.equals("json-gzip")) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+				objectMapper.writeValue(gzip, page);
+			}
+			return bytes.toByteArray();
+		}
+		return objectMapper.writeValueAsBytes(page);
+	}
+}
@@ -0,0 +1,85 @@
+package com.bookstore.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Author name searches over {@code authorCount} generated names: one of 60
+ * first names and a surname of two to four random syllables, plus a handful of
+ * real names to look up. The queries are a misspelling, an exact surname and a
+ * common first name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class AuthorSearchBenchmark {
+
+	private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+			"Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+			"Thomas", "Sarah", "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Margaret",
+			"Anthony", "Betty", "Mark", "Sandra", "Donald", "Ashley", "Steven", "Dorothy", "Paul", "Kimberly",
+			"Andrew", "Emily", "Joshua", "Donna", "Kenneth", "Michelle", "Kevin", "Carol", "Brian", "Amanda",
+			"George", "Melissa", "Timothy", "Deborah", "José", "María", "François", "Zoë", "Søren", "Björn",
+			"Chidi", "Hiroshi", "Priya", "Olena"};
+
+	private static final String[] SYLLABLES = {"ka", "ri", "mo", "len", "dor", "sa", "vi", "tan", "el", "bur",
+			"go", "ne", "shi", "ra", "ton", "ber", "li", "ma", "ko", "stein", "ham", "wood", "ski", "ez", "son"};
+
+	private static final String[] REAL_NAMES = {"J.R.R. Tolkien", "Christopher Tolkien", "Leo Tolstoy",
+			"Gabriel García Márquez", "Fyodor Dostoevsky", "Chimamanda Ngozi Adichie"};
+
+	@Param({"1000000"})
+	private int authorCount;
+
+	@Param({"0.4"})
+	private double minSimilarity;
+
+	private final TextIndex names = new TextIndex();
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		for (long id = 1; id <= authorCount; id++) {
+			StringBuilder surname = new StringBuilder();
+			for (int s = 2 + random.nextInt(3); s > 0; s--) {
+				surname.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+			}
+			surname.setCharAt(0, Character.toUpperCase(surname.charAt(0)));
+			names.put(id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + surname);
+		}
+		for (int i = 0; i < REAL_NAMES.length; i++) {
+			names.put((long) authorCount + i + 1, REAL_NAMES[i]);
+		}
+	}
+
+	@Benchmark
+	public List<Long> misspelt() {
+		return names.searchSimilar("Dostoyevsky", minSimilarity);
+	}
+
+	@Benchmark
+	public List<Long> exactSurname() {
+		return names.searchSimilar("tolkien", minSimilarity);
+	}
+
+	@Benchmark
+	public List<Long> commonFirstName() {
+		return names.searchSimilar("Patricia", minSimilarity);
+	}
+}
@@ -0,0 +1,58 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.BookFacetsDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Facet counts over {@code bookCount} generated books with the value spread of
+ * CatalogSeeder: 12 genres, 125 publication years and 40 nationalities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class CatalogFacetsBenchmark {
+
+	private static final String[] GENRES = {"Fantasy", "Mystery", "Romance", "Science Fiction", "Horror",
+			"Biography", "History", "Poetry", "Thriller", "Travel", "Children", "Cooking"};
+
+	@Param({"10000", "100000", "1000000"})
+	private int bookCount;
+
+	private final CatalogFacets facets = new CatalogFacets();
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		for (long id = 0; id < bookCount; id++) {
+			facets.put(id, GENRES[random.nextInt(GENRES.length)], BigDecimal.valueOf(500 + random.nextInt(9500), 2),
+					1900 + random.nextInt(125), "Nationality " + random.nextInt(40));
+		}
+	}
+
+	@Benchmark
+	public BookFacetsDTO unfiltered() {
+		return facets.count(null, null, null);
+	}
+
+	@Benchmark
+	public BookFacetsDTO genreAndPriceRange() {
+		return facets.count("Mystery", new BigDecimal("10.00"), new BigDecimal("40.00"));
+	}
+}
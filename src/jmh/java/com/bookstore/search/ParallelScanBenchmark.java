@@ -0,0 +1,92 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.BookDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-catalog scans of the catalog snapshot with {@code parallelism}
+ * segments evaluated at once; 1 scans on the calling thread. The catalog is
+ * built straight into the snapshot, without a database, so only the scan is
+ * measured. Scaling needs as many cores as the largest setting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class ParallelScanBenchmark {
+
+	private static final String[] GENRES = {"Fantasy", "Mystery", "Romance", "Science Fiction", "Horror",
+			"Biography", "History", "Poetry", "Thriller", "Children"};
+
+	@Param({"1000000"})
+	private int bookCount;
+
+	@Param({"1", "2", "4", "8"})
+	private int parallelism;
+
+	private final Pageable page = PageRequest.of(0, 50, Sort.by("title"));
+
+	private ForkJoinPool pool;
+
+	private CatalogSnapshot snapshot;
+
+	@Setup
+	public void setUp() {
+		pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+		snapshot = new CatalogSnapshot(pool, 0);
+		Random random = new Random(42);
+		LocalDateTime now = LocalDateTime.now();
+		for (long id = 1; id <= bookCount; id++) {
+			snapshot.put(new BookDTO(id, "Title " + random.nextInt(bookCount), "ISBN-" + id, "Generated book " + id,
+					1900 + random.nextInt(125), BigDecimal.valueOf(500 + random.nextInt(9500), 2),
+					GENRES[random.nextInt(GENRES.length)], 50 + random.nextInt(900), "Publisher " + random.nextInt(200),
+					now, now, (long) random.nextInt(5000), "Author " + random.nextInt(5000)));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	@Benchmark
+	public List<BookDTO> priceReport() {
+		return snapshot.findByPriceBetween(new BigDecimal("20.00"), new BigDecimal("30.00"));
+	}
+
+	@Benchmark
+	public Page<BookDTO> filteredPage() {
+		return snapshot.find(null, "Mystery", new BigDecimal("10.00"), null, page).orElseThrow();
+	}
+
+	@Benchmark
+	public Page<BookDTO> wholeCatalogPage() {
+		return snapshot.find(null, null, null, null, page).orElseThrow();
+	}
+}
@@ -0,0 +1,90 @@
+package com.bookstore.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completions over {@code bookCount} generated titles of two to six words and
+ * one author per 20 books, sampled so the score shows percentiles. Each call
+ * types the next prefix of a rotating list of one to nine characters; the
+ * writes benchmark also adds a title every 100 lookups, so buffered writes and
+ * merges are part of the distribution. Setup prints the estimated index size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class SuggestBenchmark {
+
+	private static final String[] WORDS = {"the", "of", "and", "lord", "rings", "shadow", "night", "king", "queen",
+			"dragon", "house", "river", "winter", "summer", "garden", "secret", "last", "first", "city", "fire", "ice",
+			"storm", "blood", "bone", "glass", "silver", "golden", "war", "peace", "love", "death", "dream", "stone",
+			"sea", "star", "moon", "sun", "forest", "mountain", "empire", "crown", "sword", "song", "tale", "story",
+			"history", "murder", "mystery", "journey", "return", "children", "daughter", "son", "wolf", "raven", "rose"};
+
+	private static final String[] PREFIXES = {"t", "th", "the", "the l", "lor", "lord of", "s", "sh", "shad",
+			"shadow o", "dr", "drag", "dragon", "mur", "murder", "wi", "wint", "mys", "myster", "j", "jo", "journ",
+			"x", "q", "qu", "quee", "queen of t"};
+
+	@Param({"100000"})
+	private int bookCount;
+
+	private final Completions completions = new Completions(Long.MAX_VALUE);
+
+	private final Random random = new Random(7);
+
+	private int next;
+
+	@Setup
+	public void setUp() {
+		Random setup = new Random(42);
+		List<Completions.Completion> entries = new ArrayList<>();
+		for (long id = 0; id < bookCount; id++) {
+			entries.add(new Completions.Completion(id << 1, title(setup), 1));
+		}
+		for (long id = 0; id < bookCount / 20; id++) {
+			entries.add(new Completions.Completion(id << 1 | 1, "Author " + WORDS[setup.nextInt(WORDS.length)]
+					+ " " + id, setup.nextInt(40)));
+		}
+		completions.replaceAll(entries);
+		System.out.println("Completion index: " + completions.size() + " entries, about "
+				+ completions.estimatedBytes() / (1024 * 1024) + " MB");
+	}
+
+	@Benchmark
+	public List<Completions.Completion> suggest() {
+		return completions.complete(PREFIXES[next++ % PREFIXES.length], 10);
+	}
+
+	@Benchmark
+	public List<Completions.Completion> suggestWithWrites() {
+		if (next % 100 == 0) {
+			completions.put((long) (bookCount + random.nextInt(bookCount)) << 1, title(random), 1);
+		}
+		return completions.complete(PREFIXES[next++ % PREFIXES.length], 10);
+	}
+
+	private static String title(Random random) {
+		StringBuilder title = new StringBuilder();
+		for (int w = 2 + random.nextInt(5); w > 0; w--) {
+			title.append(title.isEmpty() ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return title.toString();
+	}
+}
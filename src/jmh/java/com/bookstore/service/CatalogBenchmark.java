@@ -0,0 +1,129 @@
+package com.bookstore.service;
+
+import com.bookstore.BookstoreApiApplication;
+import com.bookstore.dto.BookDTO;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.search.BookFacetIndex;
+import com.bookstore.search.BookSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtered listing and title search against the application context with an
+ * H2 catalog seeded to {@code bookCount} books. Each size runs in its own fork;
+ * {@code indexed=false} drops the query indexes from V3__add_query_indexes.sql
+ * after seeding, to compare index seeks with full table scans. H2's reuse of
+ * the previous result for an identical query is turned off so every invocation
+ * really executes the statement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class CatalogBenchmark {
+
+	private static final String[] QUERY_INDEXES = {"idx_books_genre_price", "idx_books_price",
+			"idx_books_publication_year", "idx_books_author_title", "idx_books_title", "idx_authors_nationality",
+			"idx_authors_email"};
+
+	@Param({"10000", "100000", "1000000"})
+	private int bookCount;
+
+	@Param({"true", "false"})
+	private boolean indexed;
+
+	private final Pageable firstPage = PageRequest.of(0, 20, Sort.by("title"));
+
+	private ConfigurableApplicationContext context;
+
+	private BookRepository bookRepository;
+
+	private BookService bookService;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BookstoreApiApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:bookstoredb;OPTIMIZE_REUSE_RESULTS=0",
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN",
+						"--logging.level.com.bookstore=WARN");
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		CatalogSeeder.seed(jdbcTemplate, bookCount);
+		if (!indexed) {
+			for (String index : QUERY_INDEXES) {
+				jdbcTemplate.execute("DROP INDEX " + index);
+			}
+		}
+		jdbcTemplate.execute("ANALYZE");
+		context.getBean(BookSearchIndex.class).rebuild();
+		context.getBean(BookFacetIndex.class).rebuild();
+		bookRepository = context.getBean(BookRepository.class);
+		bookService = context.getBean(BookService.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<BookDTO> findByFilters() {
+		return bookService.searchBooksWithFilters(null, "Mystery", new BigDecimal("10.00"), new BigDecimal("40.00"),
+				firstPage);
+	}
+
+	@Benchmark
+	public Page<BookDTO> firstPageByTitle() {
+		return bookService.getAllBooks(firstPage);
+	}
+
+	@Benchmark
+	public Page<BookDTO> findByAuthorId() {
+		return bookRepository.findByAuthorId(1500L, firstPage);
+	}
+
+	@Benchmark
+	public List<BookDTO> findByPublicationYearBetween() {
+		return bookRepository.findByPublicationYearBetween(1950, 1950);
+	}
+
+	@Benchmark
+	public List<BookDTO> findByPriceBetween() {
+		return bookRepository.findByPriceBetween(new BigDecimal("42.00"), new BigDecimal("42.50"));
+	}
+
+	@Benchmark
+	public Page<BookDTO> searchWithTitleAndFilters() {
+		return bookService.searchBooksWithFilters("silent river", "Mystery", null, null, firstPage);
+	}
+
+	@Benchmark
+	public List<BookDTO> searchByTitle() {
+		return bookService.searchBooksByTitle("silent river");
+	}
+}
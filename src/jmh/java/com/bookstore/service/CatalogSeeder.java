@@ -0,0 +1,69 @@
+package com.bookstore.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the catalog with a deterministic set of generated authors and books so
+ * benchmark runs at the same size are comparable.
+ */
+final class CatalogSeeder {
+
+	static final String[] GENRES = {"Fantasy", "Mystery", "Romance", "Science Fiction", "Horror", "Biography",
+			"History", "Poetry", "Thriller", "Travel", "Children", "Cooking"};
+
+	private static final String[] ADJECTIVES = {"Silent", "Hidden", "Broken", "Golden", "Forgotten", "Crimson",
+			"Endless", "Frozen", "Burning", "Lonely", "Ancient", "Distant", "Wild", "Secret", "Shattered", "Quiet",
+			"Dark", "Bright", "Lost", "Restless", "Gentle", "Bitter", "Hollow", "Wandering"};
+
+	private static final String[] NOUNS = {"River", "Kingdom", "Garden", "Shadow", "Mountain", "Empire", "Song",
+			"Tower", "Harbor", "Forest", "Crown", "Storm", "Mirror", "Road", "Island", "Winter", "Flame", "Sea",
+			"House", "Letter", "Star", "Bridge", "Valley", "Dream"};
+
+	private static final String[] PLACES = {"the North", "Avalon", "the Deep", "Babel", "the Moors", "Lisbon",
+			"the Steppe", "Kyoto", "the Marsh", "Carthage", "the Coast", "Prague"};
+
+	private static final int AUTHOR_COUNT = 1000;
+	private static final long FIRST_ID = 1000;
+	private static final int BATCH_SIZE = 5000;
+
+	private CatalogSeeder() {
+	}
+
+	static void seed(JdbcTemplate jdbcTemplate, int bookCount) {
+		Random random = new Random(42);
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+		List<Object[]> authors = new ArrayList<>(AUTHOR_COUNT);
+		for (int i = 0; i < AUTHOR_COUNT; i++) {
+			long id = FIRST_ID + i;
+			authors.add(new Object[]{id, "Author " + id, "author" + id + "@email.com", "Generated author",
+					"Nationality " + (i % 40), now, now});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO authors (id, name, email, bio, nationality, created_at, updated_at) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?)", authors);
+
+		List<Object[]> books = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < bookCount; i++) {
+			long id = FIRST_ID + i;
+			String title = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+					+ " of " + PLACES[random.nextInt(PLACES.length)] + " " + i;
+			books.add(new Object[]{id, title, "BENCH-" + id, "Generated book " + i, 1900 + random.nextInt(125),
+					BigDecimal.valueOf(500 + random.nextInt(9500), 2), GENRES[random.nextInt(GENRES.length)],
+					50 + random.nextInt(900), "Publisher " + random.nextInt(200),
+					FIRST_ID + random.nextInt(AUTHOR_COUNT), now, now});
+			if (books.size() == BATCH_SIZE || i == bookCount - 1) {
+				jdbcTemplate.batchUpdate("INSERT INTO books (id, title, isbn, description, publication_year, price, "
+						+ "genre, page_count, publisher, author_id, created_at, updated_at) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", books);
+				books.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.bookstore.service;
+
+import com.bookstore.BookstoreApiApplication;
+import com.bookstore.dto.BookDTO;
+import com.bookstore.model.Book;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.search.BookSnapshotIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Genre listing, price range listing and a filtered, sorted page answered
+ * from the database and from the catalog snapshot. Coalesced reads and the
+ * query cache are off so every call does the work. The setup prints the heap
+ * the snapshot keeps next to the heap of the whole catalog loaded as
+ * entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class CatalogSnapshotBenchmark {
+
+	@Param({"100000"})
+	private int bookCount;
+
+	@Param({"false", "true"})
+	private boolean snapshot;
+
+	private final Pageable page = PageRequest.of(10, 20, Sort.by("title"));
+
+	private ConfigurableApplicationContext context;
+
+	private BookService bookService;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BookstoreApiApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:bookstoredb;OPTIMIZE_REUSE_RESULTS=0",
+						"--spring.jpa.show-sql=false",
+						"--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+						"--bookstore.reads.coalesce-window=0ms",
+						"--bookstore.catalog.snapshot.enabled=" + snapshot,
+						"--logging.level.root=WARN",
+						"--logging.level.com.bookstore=WARN");
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		CatalogSeeder.seed(jdbcTemplate, bookCount);
+		jdbcTemplate.execute("ANALYZE");
+		bookService = context.getBean(BookService.class);
+
+		long before = usedHeap();
+		if (snapshot) {
+			context.getBean(BookSnapshotIndex.class).rebuild();
+			System.out.printf("%n%d books: snapshot retains %d MB%n", bookCount, (usedHeap() - before) >> 20);
+		} else {
+			List<Book> entities = loadEntities();
+			System.out.printf("%n%d books: %d entities retain %d MB%n", bookCount, entities.size(),
+					(usedHeap() - before) >> 20);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<BookDTO> genreListing() {
+		return bookService.getBooksByGenre("Mystery");
+	}
+
+	@Benchmark
+	public List<BookDTO> priceRange() {
+		return bookService.getBooksByPriceRange(new BigDecimal("20.00"), new BigDecimal("20.50"));
+	}
+
+	@Benchmark
+	public Page<BookDTO> filteredPage() {
+		return bookService.searchBooksWithFilters(null, "Mystery", new BigDecimal("10.00"), null, page);
+	}
+
+	private List<Book> loadEntities() {
+		TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		transaction.setReadOnly(true);
+		return transaction.execute(status -> {
+			try (Stream<Book> books = context.getBean(BookRepository.class).streamAll()) {
+				return books.collect(Collectors.toList());
+			}
+		});
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,100 @@
+package com.bookstore.service;
+
+import com.bookstore.BookstoreApiApplication;
+import com.bookstore.dto.BookDTO;
+import com.bookstore.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads reading the same book and the same genre at once, as when a
+ * popular title goes live. {@code uncoalesced*} run the plain load on every
+ * call; the others go through the service's single-flight layer with the
+ * given micro-cache {@code window} ({@code 0ms} only shares loads in flight).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class HotReadBenchmark {
+
+	private static final long HOT_BOOK_ID = 1000;
+
+	@Param({"10000"})
+	private int bookCount;
+
+	@Param({"0ms", "100ms"})
+	private String window;
+
+	private ConfigurableApplicationContext context;
+
+	private BookService bookService;
+
+	private BookRepository bookRepository;
+
+	private TransactionTemplate readTransaction;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BookstoreApiApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--bookstore.reads.coalesce-window=" + window,
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN",
+						"--logging.level.com.bookstore=WARN");
+		CatalogSeeder.seed(context.getBean(JdbcTemplate.class), bookCount);
+		bookService = context.getBean(BookService.class);
+		bookRepository = context.getBean(BookRepository.class);
+		readTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readTransaction.setReadOnly(true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Optional<BookDTO> bookById() {
+		return bookService.getBookById(HOT_BOOK_ID);
+	}
+
+	@Benchmark
+	public Optional<BookDTO> uncoalescedBookById() {
+		return readTransaction.execute(status -> bookRepository.findById(HOT_BOOK_ID).map(bookService::convertToDTO));
+	}
+
+	@Benchmark
+	public List<BookDTO> booksByGenre() {
+		return bookService.getBooksByGenre("Mystery");
+	}
+
+	@Benchmark
+	public List<BookDTO> uncoalescedBooksByGenre() {
+		return bookRepository.findByGenre("Mystery");
+	}
+}
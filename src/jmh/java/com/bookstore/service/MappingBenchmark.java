@@ -0,0 +1,65 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.AuthorDTO;
+import com.bookstore.dto.BookDTO;
+import com.bookstore.model.Author;
+import com.bookstore.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping used by every single-entity endpoint and the cursor and
+ * NDJSON listings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+	private final BookService bookService = new BookService();
+
+	private final AuthorService authorService = new AuthorService();
+
+	private Book book;
+
+	private Author author;
+
+	@Setup
+	public void setUp() {
+		author = new Author("J.R.R. Tolkien", "tolkien@email.com", "English writer, poet, and academic", "British");
+		author.setId(3L);
+		author.setCreatedAt(LocalDateTime.now());
+		author.setUpdatedAt(LocalDateTime.now());
+		book = new Book("The Hobbit", "9780547928227", "Fantasy novel and children's book", 1937,
+				new BigDecimal("15.99"), "Fantasy", 310, "Allen & Unwin");
+		book.setId(3L);
+		book.setAuthor(author);
+		book.setCreatedAt(LocalDateTime.now());
+		book.setUpdatedAt(LocalDateTime.now());
+	}
+
+	@Benchmark
+	public BookDTO bookToDto() {
+		return bookService.convertToDTO(book);
+	}
+
+	@Benchmark
+	public AuthorDTO authorToDto() {
+		return authorService.convertToDTO(author);
+	}
+}
@@ -0,0 +1,107 @@
+package com.bookstore.service;
+
+import com.bookstore.BookstoreApiApplication;
+import com.bookstore.config.SparseFieldsConfig;
+import com.bookstore.dto.BookDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A genre listing and a filtered page read and written as JSON, with every
+ * property and with the list-view fieldset ({@code id}, {@code title},
+ * {@code price}, {@code authorName}). Seeded descriptions are padded to about
+ * 800 characters, closer to real ones than the seeder's one-liners. Run it
+ * with {@code -Djmh.bookCount=100000}: padded, a million books do not fit the
+ * benchmark heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class SparseFieldsBenchmark {
+
+	private static final Set<String> ALL_FIELDS = Set.of("title", "isbn", "description", "publicationYear", "price",
+			"genre", "pageCount", "publisher", "createdAt", "updatedAt", "authorId", "authorName");
+
+	private static final Set<String> LIST_FIELDS = Set.of("title", "price", "authorName");
+
+	@Param({"100000"})
+	private int bookCount;
+
+	@Param({"all", "list"})
+	private String fieldset;
+
+	private final Pageable firstPage = PageRequest.of(0, 100, Sort.by("title"));
+
+	private ConfigurableApplicationContext context;
+
+	private BookService bookService;
+
+	private Set<String> fields;
+
+	private ObjectWriter writer;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BookstoreApiApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:bookstoredb;OPTIMIZE_REUSE_RESULTS=0",
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN",
+						"--logging.level.com.bookstore=WARN");
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		CatalogSeeder.seed(jdbcTemplate, bookCount);
+		jdbcTemplate.execute("UPDATE books SET description = CONCAT(description, ' ', REPEAT('lorem ipsum ', 65))");
+		jdbcTemplate.execute("ANALYZE");
+		bookService = context.getBean(BookService.class);
+		fields = fieldset.equals("all") ? ALL_FIELDS : LIST_FIELDS;
+		SimpleBeanPropertyFilter filter = fieldset.equals("all") ? SimpleBeanPropertyFilter.serializeAll()
+				: SimpleBeanPropertyFilter.filterOutAllExcept("id", "title", "price", "authorName");
+		writer = context.getBean(ObjectMapper.class)
+				.writer(new SimpleFilterProvider().addFilter(SparseFieldsConfig.FILTER, filter));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public byte[] genreListing() throws Exception {
+		List<BookDTO> books = bookService.getBooksByGenre("Mystery", fields);
+		return writer.writeValueAsBytes(books);
+	}
+
+	@Benchmark
+	public byte[] filteredPage() throws Exception {
+		return writer.writeValueAsBytes(bookService.searchBooksWithFilters(null, "Mystery", null, null, firstPage,
+				fields));
+	}
+}
@@ -0,0 +1,120 @@
+package com.bookstore.service;
+
+import com.bookstore.BookstoreApiApplication;
+import com.bookstore.dto.BookDTO;
+import com.bookstore.dto.WriteStatusDTO;
+import com.bookstore.model.Book;
+import com.bookstore.repository.BookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A repricing run: {@value #UPDATES} book price updates, applied one request
+ * at a time through {@code BookService.updateBook} or queued with the
+ * write-behind service and committed {@code batchSize} at a time. Scores are
+ * per update and include waiting until the last queued update is applied.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 6, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+public class WriteBehindBenchmark {
+
+	private static final int UPDATES = 2000;
+
+	@Param({"10000"})
+	private int bookCount;
+
+	@Param({"1", "50", "500"})
+	private int batchSize;
+
+	private ConfigurableApplicationContext context;
+
+	private BookService bookService;
+
+	private WriteBehindService writeBehindService;
+
+	private List<BookDTO> books;
+
+	private int next;
+
+	private int round;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(BookstoreApiApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--bookstore.write-behind.batch-size=" + batchSize,
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN",
+						"--logging.level.com.bookstore=WARN");
+		CatalogSeeder.seed(context.getBean(JdbcTemplate.class), bookCount);
+		bookService = context.getBean(BookService.class);
+		writeBehindService = context.getBean(WriteBehindService.class);
+		books = context.getBean(BookRepository.class).findAllDTOs();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(UPDATES)
+	public void synchronousUpdates() {
+		round++;
+		for (int i = 0; i < UPDATES; i++) {
+			BookDTO book = nextBook();
+			bookService.updateBook(book.getId(), repriced(book));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(UPDATES)
+	public WriteStatusDTO writeBehindUpdates() throws InterruptedException {
+		round++;
+		WriteStatusDTO last = null;
+		for (int i = 0; i < UPDATES; i++) {
+			BookDTO book = nextBook();
+			last = writeBehindService.updateBook(book.getId(), repriced(book)).orElseThrow();
+		}
+		while (writeBehindService.getStatus(last.getTrackingId()).orElseThrow().getState()
+				== WriteStatusDTO.State.QUEUED) {
+			Thread.sleep(1);
+		}
+		return last;
+	}
+
+	private BookDTO nextBook() {
+		BookDTO book = books.get(next);
+		next = (next + 1) % books.size();
+		return book;
+	}
+
+	private Book repriced(BookDTO book) {
+		return new Book(book.getTitle(), book.getIsbn(), book.getDescription(), book.getPublicationYear(),
+				BigDecimal.valueOf(500 + (book.getId() + round) % 9500, 2), book.getGenre(), book.getPageCount(),
+				book.getPublisher());
+	}
+}
@@ -0,0 +1,22 @@
+package com.bookstore.config;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+
+@Configuration
+public class CacheConfig {
+
+    // Resolved through Spring so the Ehcache configuration is found in the packaged jar and in tests alike
+    @Bean
+    public HibernatePropertiesCustomizer jcacheConfigCustomizer(
+            @Value("${bookstore.cache.config:classpath:ehcache.xml}") Resource config) throws IOException {
+        String uri = config.getURI().toString();
+        return properties -> properties.put(ConfigSettings.CONFIG_URI, uri);
+    }
+}
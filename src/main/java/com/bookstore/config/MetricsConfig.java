@@ -0,0 +1,34 @@
+package com.bookstore.config;
+
+import com.bookstore.metrics.RepositoryRowCountPostProcessor;
+import com.bookstore.metrics.SqlStatementAsyncInterceptor;
+import com.bookstore.metrics.SqlStatementRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementRecorderCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementRecorder());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new SqlStatementAsyncInterceptor());
+    }
+
+    // Static so the post-processor does not force early initialization of this configuration
+    @Bean
+    public static RepositoryRowCountPostProcessor repositoryRowCountPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryRowCountPostProcessor(meterRegistry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.bookstore.config;
+
+import com.bookstore.dto.AuthorDTO;
+import com.bookstore.dto.BookDTO;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts books and authors behind the {@value #FILTER} property filter, which
+ * writes every property unless a request with {@code fields=} replaces it.
+ * The filter is attached with a mix-in, so the DTOs stay plain and object
+ * mappers built elsewhere are unaffected.
+ */
+@Configuration
+public class SparseFieldsConfig {
+
+    public static final String FILTER = "fields";
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder
+                .mixIn(BookDTO.class, FilteredMixin.class)
+                .mixIn(AuthorDTO.class, FilteredMixin.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @JsonFilter(FILTER)
+    private interface FilteredMixin {
+    }
+}
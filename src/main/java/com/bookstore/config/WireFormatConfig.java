@@ -0,0 +1,41 @@
+package com.bookstore.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * Binary response formats next to JSON, chosen by the {@code Accept} header:
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}).
+ * Both converters are built from Spring Boot's object mapper builder, so they
+ * write the same properties as the JSON converter. The columnar book listing
+ * is served as {@link #COLUMNAR_JSON_VALUE} by the JSON converter and as
+ * {@link #COLUMNAR_CBOR_VALUE} by the CBOR one.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final String COLUMNAR_JSON_VALUE = "application/vnd.bookstore.columnar+json";
+    public static final String COLUMNAR_CBOR_VALUE = "application/vnd.bookstore.columnar+cbor";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        MappingJackson2CborHttpMessageConverter converter =
+                new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+        converter.setSupportedMediaTypes(List.of(MediaType.APPLICATION_CBOR, MediaType.valueOf(COLUMNAR_CBOR_VALUE)));
+        return converter;
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
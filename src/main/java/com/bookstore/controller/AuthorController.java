@@ -1,22 +1,38 @@
 package com.bookstore.controller;
 
 import com.bookstore.dto.AuthorDTO;
+import com.bookstore.dto.BatchLookupRequest;
+import com.bookstore.dto.BatchLookupResult;
+import com.bookstore.dto.BulkImportResult;
+import com.bookstore.dto.CursorPage;
+import com.bookstore.dto.WriteStatusDTO;
 import com.bookstore.model.Author;
 import com.bookstore.service.AuthorService;
+import com.bookstore.service.BulkImportService;
+import com.bookstore.service.HotKeys;
+import com.bookstore.service.ResourceVersion;
+import com.bookstore.service.WriteBehindService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/authors")
@@ -26,32 +42,104 @@ public class AuthorController {
     @Autowired
     private AuthorService authorService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private WriteBehindService writeBehindService;
+
+    @Autowired
+    private HotKeys hotKeys;
+
     @GetMapping
-    @Operation(summary = "Get all authors", description = "Retrieve a list of all authors with pagination and sorting")
+    @Operation(summary = "Get all authors", description = "Retrieve a list of all authors with pagination and sorting; fields=name,nationality reads and returns only those properties and the id; stats=true adds each author's book count, average price and latest publication year")
     public ResponseEntity<Page<AuthorDTO>> getAllAuthors(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(defaultValue = "false") boolean stats,
+            WebRequest request) {
+
+        if (Representations.notModified(request,
+                stats ? authorService.getAuthorsWithStatsVersion() : authorService.getAuthorsVersion())) {
+            return null;
+        }
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<AuthorDTO> authors = authorService.getAllAuthors(pageable);
-        return ResponseEntity.ok(authors);
+        try {
+            Page<AuthorDTO> authors = fields == null ? authorService.getAllAuthors(pageable)
+                    : authorService.getAllAuthors(pageable, fields);
+            return ResponseEntity.ok(stats ? authorService.withBookStats(authors) : authors);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get all authors by cursor", description = "Retrieve authors with keyset pagination: pass an empty cursor for the first page and the returned nextCursor for the next one")
+    public ResponseEntity<CursorPage<AuthorDTO>> getAllAuthorsByCursor(
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest request) {
+
+        if (Representations.notModified(request, authorService.getAuthorsVersion())) {
+            return null;
+        }
+
+        Sort sort = sortDir.equalsIgnoreCase("desc") ?
+                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+
+        try {
+            CursorPage<AuthorDTO> authors = authorService.getAllAuthors(cursor, size, sort);
+            return ResponseEntity.ok(authors);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
 
     @GetMapping("/all")
     @Operation(summary = "Get all authors without pagination", description = "Retrieve all authors without pagination")
-    public ResponseEntity<List<AuthorDTO>> getAllAuthors() {
+    public ResponseEntity<List<AuthorDTO>> getAllAuthors(WebRequest request) {
+        if (Representations.notModified(request, authorService.getAuthorsVersion())) {
+            return null;
+        }
         List<AuthorDTO> authors = authorService.getAllAuthors();
         return ResponseEntity.ok(authors);
     }
 
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all authors as NDJSON", description = "Stream every author as one JSON document per line with constant memory usage")
+    public ResponseEntity<StreamingResponseBody> streamAllAuthors() {
+        StreamingResponseBody body = authorService::exportAllAuthors;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/all", params = "stream=true")
+    @Operation(summary = "Stream all authors as NDJSON", description = "Same as requesting /all with Accept: application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllAuthorsByParam() {
+        return streamAllAuthors();
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get author by ID", description = "Retrieve a specific author by their ID")
-    public ResponseEntity<AuthorDTO> getAuthorById(@PathVariable Long id) {
+    public ResponseEntity<AuthorDTO> getAuthorById(@PathVariable Long id, WebRequest request) {
+        Optional<ResourceVersion> version = authorService.getAuthorVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        hotKeys.author(id);
+        if (Representations.notModified(request, version.get())) {
+            return null;
+        }
         Optional<AuthorDTO> author = authorService.getAuthorById(id);
         return author.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -68,14 +156,47 @@ public class AuthorController {
         }
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @Operation(summary = "Bulk import authors", description = "Import authors from an NDJSON or CSV (with header) stream; rows are inserted in batches and rejected rows are reported with their line number; a stream that cannot be read to the end gives 400 with the rows imported before it and aborted set")
+    public ResponseEntity<BulkImportResult> importAuthors(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                      InputStream body) {
+        try {
+            BulkImportResult result = bulkImportService.importAuthors(body, contentType);
+            // Rows before the point where the stream broke off stay imported, so the result goes back with the 400
+            return result.isAborted() ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get authors by IDs", description = "Look up many authors in one call; found authors are returned in request order and unknown ids are listed as missing")
+    public ResponseEntity<BatchLookupResult<AuthorDTO, Long>> getAuthorsInBatch(@RequestBody BatchLookupRequest lookup) {
+        if (lookup.getIsbns() != null) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        try {
+            BatchLookupResult<AuthorDTO, Long> authors = authorService.getAuthorsByIds(lookup.getIds());
+            return ResponseEntity.ok(authors);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an author", description = "Update an existing author's details")
     public ResponseEntity<AuthorDTO> updateAuthor(@PathVariable Long id, @Valid @RequestBody Author authorDetails) {
-        Optional<AuthorDTO> updatedAuthor = authorService.updateAuthor(id, authorDetails);
+        Optional<AuthorDTO> updatedAuthor = writeBehindService.updateAuthorNow(id, authorDetails);
         return updatedAuthor.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PutMapping(value = "/{id}", params = "async=true")
+    @Operation(summary = "Queue an author update", description = "Accept the update with 202 and apply it in a later batch; the Location header points at its status. A later queued update to the same author replaces this one. Returns 503 when the queue is full")
+    public ResponseEntity<WriteStatusDTO> updateAuthorAsync(@PathVariable Long id, @Valid @RequestBody Author authorDetails) {
+        return WriteController.accepted(writeBehindService.updateAuthor(id, authorDetails));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete an author", description = "Delete an author by their ID")
     public ResponseEntity<Void> deleteAuthor(@PathVariable Long id) {
@@ -86,21 +207,33 @@ public class AuthorController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search authors by name", description = "Search authors by name with pagination")
+    @Operation(summary = "Search authors by name", description = "Search authors by name with pagination; fields= selects the properties")
     public ResponseEntity<Page<AuthorDTO>> searchAuthors(
             @RequestParam String name,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Set<String> fields) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<AuthorDTO> authors = authorService.searchAuthorsByName(name, pageable);
-        return ResponseEntity.ok(authors);
+        try {
+            Page<AuthorDTO> authors = fields == null ? authorService.searchAuthorsByName(name, pageable)
+                    : authorService.searchAuthorsByName(name, pageable, fields);
+            return ResponseEntity.ok(authors);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
 
     @GetMapping("/nationality/{nationality}")
-    @Operation(summary = "Get authors by nationality", description = "Retrieve authors by their nationality")
-    public ResponseEntity<List<AuthorDTO>> getAuthorsByNationality(@PathVariable String nationality) {
-        List<AuthorDTO> authors = authorService.getAuthorsByNationality(nationality);
-        return ResponseEntity.ok(authors);
+    @Operation(summary = "Get authors by nationality", description = "Retrieve authors by their nationality; fields= selects the properties")
+    public ResponseEntity<List<AuthorDTO>> getAuthorsByNationality(@PathVariable String nationality,
+                                                                   @RequestParam(required = false) Set<String> fields) {
+        try {
+            List<AuthorDTO> authors = fields == null ? authorService.getAuthorsByNationality(nationality)
+                    : authorService.getAuthorsByNationality(nationality, fields);
+            return ResponseEntity.ok(authors);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
 }
\ No newline at end of file
@@ -1,23 +1,42 @@
 package com.bookstore.controller;
 
+import com.bookstore.config.WireFormatConfig;
+import com.bookstore.dto.BatchLookupRequest;
+import com.bookstore.dto.BatchLookupResult;
+import com.bookstore.dto.BookColumnsDTO;
 import com.bookstore.dto.BookDTO;
+import com.bookstore.dto.BookFacetsDTO;
+import com.bookstore.dto.BulkImportResult;
+import com.bookstore.dto.CursorPage;
+import com.bookstore.dto.WriteStatusDTO;
 import com.bookstore.model.Book;
 import com.bookstore.service.BookService;
+import com.bookstore.service.BulkImportService;
+import com.bookstore.service.HotKeys;
+import com.bookstore.service.ResourceVersion;
+import com.bookstore.service.WriteBehindService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/books")
@@ -27,8 +46,17 @@ public class BookController {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private WriteBehindService writeBehindService;
+
+    @Autowired
+    private HotKeys hotKeys;
+
     @GetMapping
-    @Operation(summary = "Get all books", description = "Retrieve a list of all books with pagination, sorting and filtering")
+    @Operation(summary = "Get all books", description = "Retrieve a list of all books with pagination, sorting and filtering; fields=title,price reads and returns only those properties and the id")
     public ResponseEntity<Page<BookDTO>> getAllBooks(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -37,32 +65,128 @@ public class BookController {
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String genre,
             @RequestParam(required = false) BigDecimal minPrice,
-            @RequestParam(required = false) BigDecimal maxPrice) {
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Set<String> fields,
+            WebRequest request) {
+
+        if (Representations.notModified(request, bookService.getCatalogVersion())) {
+            return null;
+        }
+
+        try {
+            Page<BookDTO> books = findBooks(page, size, sortBy, sortDir, title, genre, minPrice, maxPrice, fields);
+            return ResponseEntity.ok(books);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    @GetMapping(produces = {WireFormatConfig.COLUMNAR_JSON_VALUE, WireFormatConfig.COLUMNAR_CBOR_VALUE})
+    @Operation(summary = "Get all books as columns", description = "Same as Get all books, with the page laid out as one array per property: prices in cents and timestamps in epoch milliseconds")
+    public ResponseEntity<BookColumnsDTO> getAllBooksAsColumns(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            WebRequest request) {
+
+        if (Representations.notModified(request, bookService.getCatalogVersion())) {
+            return null;
+        }
+
+        try {
+            Page<BookDTO> books = findBooks(page, size, sortBy, sortDir, title, genre, minPrice, maxPrice, null);
+            return ResponseEntity.ok(bookService.convertToColumns(books));
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get all books by cursor", description = "Retrieve books with keyset pagination and optional filtering: pass an empty cursor for the first page and the returned nextCursor for the next one")
+    public ResponseEntity<CursorPage<BookDTO>> getAllBooksByCursor(
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            WebRequest request) {
+
+        if (Representations.notModified(request, bookService.getCatalogVersion())) {
+            return null;
+        }
 
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<BookDTO> books;
-        if (title != null || genre != null || minPrice != null || maxPrice != null) {
-            books = bookService.searchBooksWithFilters(title, genre, minPrice, maxPrice, pageable);
-        } else {
-            books = bookService.getAllBooks(pageable);
+        try {
+            CursorPage<BookDTO> books;
+            if (title != null || genre != null || minPrice != null || maxPrice != null) {
+                books = bookService.searchBooksWithFilters(title, genre, minPrice, maxPrice, cursor, size, sort);
+            } else {
+                books = bookService.getAllBooks(cursor, size, sort);
+            }
+            return ResponseEntity.ok(books);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
         }
-
-        return ResponseEntity.ok(books);
     }
 
     @GetMapping("/all")
     @Operation(summary = "Get all books without pagination", description = "Retrieve all books without pagination")
-    public ResponseEntity<List<BookDTO>> getAllBooks() {
+    public ResponseEntity<List<BookDTO>> getAllBooks(WebRequest request) {
+        if (Representations.notModified(request, bookService.getCatalogVersion())) {
+            return null;
+        }
         List<BookDTO> books = bookService.getAllBooks();
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all books as NDJSON", description = "Stream every book as one JSON document per line with constant memory usage")
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        StreamingResponseBody body = bookService::exportAllBooks;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/all", params = "stream=true")
+    @Operation(summary = "Stream all books as NDJSON", description = "Same as requesting /all with Accept: application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllBooksByParam() {
+        return streamAllBooks();
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Get catalog facets", description = "Count books per genre, price range, publication decade and author nationality for the given filters; genre and price range counts ignore their own filter")
+    public ResponseEntity<BookFacetsDTO> getFacets(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+
+        BookFacetsDTO facets = bookService.getFacets(title, genre, minPrice, maxPrice);
+        return ResponseEntity.ok(facets);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get book by ID", description = "Retrieve a specific book by its ID")
-    public ResponseEntity<BookDTO> getBookById(@PathVariable Long id) {
+    public ResponseEntity<BookDTO> getBookById(@PathVariable Long id, WebRequest request) {
+        Optional<ResourceVersion> version = bookService.getBookVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        hotKeys.book(id);
+        if (Representations.notModified(request, version.get())) {
+            return null;
+        }
         Optional<BookDTO> book = bookService.getBookById(id);
         return book.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -79,14 +203,49 @@ public class BookController {
         }
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @Operation(summary = "Bulk import books", description = "Import books from an NDJSON or CSV (with header) stream; rows are inserted in batches and rejected rows are reported with their line number; a stream that cannot be read to the end gives 400 with the rows imported before it and aborted set")
+    public ResponseEntity<BulkImportResult> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    InputStream body) {
+        try {
+            BulkImportResult result = bulkImportService.importBooks(body, contentType);
+            // Rows before the point where the stream broke off stay imported, so the result goes back with the 400
+            return result.isAborted() ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Get books by IDs or ISBNs", description = "Look up many books in one call by either ids or isbns; found books are returned in request order and unknown keys are listed as missing")
+    public ResponseEntity<BatchLookupResult<BookDTO, ?>> getBooksInBatch(@RequestBody BatchLookupRequest lookup) {
+        if ((lookup.getIds() == null) == (lookup.getIsbns() == null)) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        try {
+            BatchLookupResult<BookDTO, ?> books = lookup.getIds() != null
+                    ? bookService.getBooksByIds(lookup.getIds())
+                    : bookService.getBooksByIsbns(lookup.getIsbns());
+            return ResponseEntity.ok(books);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update a book", description = "Update an existing book's details")
     public ResponseEntity<BookDTO> updateBook(@PathVariable Long id, @Valid @RequestBody Book bookDetails) {
-        Optional<BookDTO> updatedBook = bookService.updateBook(id, bookDetails);
+        Optional<BookDTO> updatedBook = writeBehindService.updateBookNow(id, bookDetails);
         return updatedBook.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PutMapping(value = "/{id}", params = "async=true")
+    @Operation(summary = "Queue a book update", description = "Accept the update with 202 and apply it in a later batch; the Location header points at its status. A later queued update to the same book replaces this one. Returns 503 when the queue is full")
+    public ResponseEntity<WriteStatusDTO> updateBookAsync(@PathVariable Long id, @Valid @RequestBody Book bookDetails) {
+        return WriteController.accepted(writeBehindService.updateBook(id, bookDetails));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a book", description = "Delete a book by its ID")
     public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
@@ -97,36 +256,61 @@ public class BookController {
     }
 
     @GetMapping("/author/{authorId}")
-    @Operation(summary = "Get books by author", description = "Retrieve all books by a specific author")
-    public ResponseEntity<List<BookDTO>> getBooksByAuthor(@PathVariable Long authorId) {
-        List<BookDTO> books = bookService.getBooksByAuthor(authorId);
-        return ResponseEntity.ok(books);
+    @Operation(summary = "Get books by author", description = "Retrieve all books by a specific author; fields= selects the properties")
+    public ResponseEntity<List<BookDTO>> getBooksByAuthor(@PathVariable Long authorId,
+                                                          @RequestParam(required = false) Set<String> fields) {
+        try {
+            List<BookDTO> books = fields == null ? bookService.getBooksByAuthor(authorId)
+                    : bookService.getBooksByAuthor(authorId, fields);
+            return ResponseEntity.ok(books);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
 
     @GetMapping("/author/{authorId}/page")
-    @Operation(summary = "Get books by author with pagination", description = "Retrieve books by author with pagination")
+    @Operation(summary = "Get books by author with pagination", description = "Retrieve books by author with pagination; fields= selects the properties")
     public ResponseEntity<Page<BookDTO>> getBooksByAuthor(
             @PathVariable Long authorId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Set<String> fields) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<BookDTO> books = bookService.getBooksByAuthor(authorId, pageable);
-        return ResponseEntity.ok(books);
+        try {
+            Page<BookDTO> books = fields == null ? bookService.getBooksByAuthor(authorId, pageable)
+                    : bookService.getBooksByAuthor(authorId, pageable, fields);
+            return ResponseEntity.ok(books);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search books by title", description = "Search books by title")
-    public ResponseEntity<List<BookDTO>> searchBooksByTitle(@RequestParam String title) {
-        List<BookDTO> books = bookService.searchBooksByTitle(title);
-        return ResponseEntity.ok(books);
+    @Operation(summary = "Search books by title", description = "Search books by title; fields= selects the properties")
+    public ResponseEntity<List<BookDTO>> searchBooksByTitle(@RequestParam String title,
+                                                            @RequestParam(required = false) Set<String> fields) {
+        try {
+            List<BookDTO> books = fields == null ? bookService.searchBooksByTitle(title)
+                    : bookService.searchBooksByTitle(title, fields);
+            return ResponseEntity.ok(books);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
 
     @GetMapping("/genre/{genre}")
-    @Operation(summary = "Get books by genre", description = "Retrieve books by genre")
-    public ResponseEntity<List<BookDTO>> getBooksByGenre(@PathVariable String genre) {
-        List<BookDTO> books = bookService.getBooksByGenre(genre);
-        return ResponseEntity.ok(books);
+    @Operation(summary = "Get books by genre", description = "Retrieve books by genre; fields= selects the properties")
+    public ResponseEntity<List<BookDTO>> getBooksByGenre(@PathVariable String genre,
+                                                         @RequestParam(required = false) Set<String> fields) {
+        try {
+            List<BookDTO> books = fields == null ? bookService.getBooksByGenre(genre)
+                    : bookService.getBooksByGenre(genre, fields);
+            hotKeys.genre(genre);
+            return ResponseEntity.ok(books);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
 
     @GetMapping("/price-range")
@@ -138,4 +322,19 @@ public class BookController {
         List<BookDTO> books = bookService.getBooksByPriceRange(minPrice, maxPrice);
         return ResponseEntity.ok(books);
     }
-}
\ No newline at end of file
+
+    private Page<BookDTO> findBooks(int page, int size, String sortBy, String sortDir, String title, String genre,
+                                    BigDecimal minPrice, BigDecimal maxPrice, Set<String> fields) {
+        Sort sort = sortDir.equalsIgnoreCase("desc") ?
+                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        if (fields != null) {
+            return bookService.searchBooksWithFilters(title, genre, minPrice, maxPrice, pageable, fields);
+        }
+        if (title != null || genre != null || minPrice != null || maxPrice != null) {
+            return bookService.searchBooksWithFilters(title, genre, minPrice, maxPrice, pageable);
+        }
+        return bookService.getAllBooks(pageable);
+    }
+}
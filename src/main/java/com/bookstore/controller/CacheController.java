@@ -0,0 +1,43 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.CacheRegionStatsDTO;
+import com.bookstore.service.CacheStatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache Management", description = "APIs for inspecting the second-level cache")
+public class CacheController {
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @GetMapping("/regions")
+    @Operation(summary = "Get cache region statistics", description = "Retrieve hit, miss, put and eviction counters for every cache region")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getRegionStatistics() {
+        List<CacheRegionStatsDTO> regions = cacheStatisticsService.getRegionStatistics();
+        return ResponseEntity.ok(regions);
+    }
+
+    @GetMapping("/regions/{region}")
+    @Operation(summary = "Get statistics for a cache region", description = "Retrieve hit, miss, put and eviction counters for one cache region")
+    public ResponseEntity<CacheRegionStatsDTO> getRegionStatistics(@PathVariable String region) {
+        Optional<CacheRegionStatsDTO> stats = cacheStatisticsService.getRegionStatistics(region);
+        return stats.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/regions")
+    @Operation(summary = "Evict all cache regions", description = "Drop every entry from the second-level and query caches")
+    public ResponseEntity<Void> evictAll() {
+        cacheStatisticsService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
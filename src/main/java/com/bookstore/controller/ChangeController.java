@@ -0,0 +1,30 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.ChangeDTO;
+import com.bookstore.dto.CursorPage;
+import com.bookstore.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/changes")
+@Tag(name = "Changes", description = "Ordered feed of book and author changes")
+public class ChangeController {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @GetMapping
+    @Operation(summary = "Get changes since a cursor", description = "Return up to size book and author changes after since, oldest first: upserts carry the current state, deletes are tombstones. Without since, return no changes and the cursor of the latest one")
+    public ResponseEntity<CursorPage<ChangeDTO>> getChanges(@RequestParam(required = false) String since,
+                                                            @RequestParam(defaultValue = "100") int size) {
+        try {
+            return ResponseEntity.ok(changeFeedService.getChanges(since, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+}
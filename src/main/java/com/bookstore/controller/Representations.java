@@ -0,0 +1,79 @@
+package com.bookstore.controller;
+
+import com.bookstore.config.WireFormatConfig;
+import com.bookstore.service.ResourceVersion;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conditional GET for resources served in several formats. The format the
+ * client asks for first becomes part of the ETag, so a cached JSON body is
+ * never revalidated for a CBOR request, and responses carry {@code Vary: Accept}.
+ */
+final class Representations {
+
+    // Checked in order, JSON first, so wildcards resolve to the default representation
+    private static final Map<MediaType, String> FORMATS = new LinkedHashMap<>();
+
+    static {
+        FORMATS.put(MediaType.APPLICATION_JSON, "");
+        FORMATS.put(MediaType.valueOf(WireFormatConfig.COLUMNAR_JSON_VALUE), "columns");
+        FORMATS.put(MediaType.valueOf(WireFormatConfig.COLUMNAR_CBOR_VALUE), "columns-cbor");
+        FORMATS.put(MediaType.APPLICATION_CBOR, "cbor");
+        FORMATS.put(MediaType.valueOf(WireFormatConfig.SMILE_VALUE), "smile");
+    }
+
+    private Representations() {
+    }
+
+    static boolean notModified(WebRequest request, ResourceVersion version) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        ResourceVersion representation = version.variant(format(request.getHeader(HttpHeaders.ACCEPT)));
+        return request.checkNotModified(representation.eTag(), representation.lastModified());
+    }
+
+    /**
+     * The format of the most preferred acceptable media type; empty for JSON,
+     * for wildcards and when the header is missing or malformed.
+     */
+    static String format(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "";
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        String best = "";
+        double bestQuality = 0;
+        for (MediaType mediaType : acceptable) {
+            double quality = mediaType.getQualityValue();
+            if (quality <= bestQuality) {
+                continue;
+            }
+            for (Map.Entry<MediaType, String> format : FORMATS.entrySet()) {
+                if (mediaType.isCompatibleWith(format.getKey())) {
+                    best = format.getValue();
+                    bestQuality = quality;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,64 @@
+package com.bookstore.controller;
+
+import com.bookstore.config.SparseFieldsConfig;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Writes only the requested properties of books and authors for handlers that
+ * take a {@code fields} parameter; {@code id} is always included, and so are
+ * author {@code stats} when {@code stats=true} asked for them. The handlers
+ * have already selected just those columns, so the other properties are null
+ * and would otherwise show up as such.
+ */
+@RestControllerAdvice
+public class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    static final String FIELDS = "fields";
+    static final String STATS = "stats";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && Arrays.stream(returnType.getExecutable().getParameters())
+                .anyMatch(parameter -> parameter.isAnnotationPresent(RequestParam.class)
+                        && FIELDS.equals(parameter.getName()));
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        HttpServletRequest servlet = servletRequest.getServletRequest();
+        String fields = servlet.getParameter(FIELDS);
+        if (fields == null) {
+            return;
+        }
+        Set<String> properties = new LinkedHashSet<>();
+        properties.add("id");
+        properties.addAll(StringUtils.commaDelimitedListToSet(fields.replace(" ", "")));
+        if (Boolean.parseBoolean(servlet.getParameter(STATS))) {
+            properties.add(STATS);
+        }
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(SparseFieldsConfig.FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(properties)));
+    }
+}
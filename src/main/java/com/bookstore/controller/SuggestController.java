@@ -0,0 +1,32 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.SuggestionDTO;
+import com.bookstore.search.SuggestIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/suggest")
+@Tag(name = "Suggestions", description = "Type-ahead completions for the search box")
+public class SuggestController {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @GetMapping
+    @Operation(summary = "Suggest titles and authors", description = "Return up to limit book titles and author names with a word starting with q, ignoring case and accents; authors with more books come first")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam String q,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        return ResponseEntity.ok(suggestIndex.suggest(q, limit));
+    }
+}
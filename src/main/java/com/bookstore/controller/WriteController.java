@@ -0,0 +1,48 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.WriteQueueStatsDTO;
+import com.bookstore.dto.WriteStatusDTO;
+import com.bookstore.service.WriteBehindService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/writes")
+@Tag(name = "Write Tracking", description = "APIs for following updates queued with async=true")
+public class WriteController {
+
+    @Autowired
+    private WriteBehindService writeBehindService;
+
+    @GetMapping
+    @Operation(summary = "Get write queue statistics", description = "Retrieve the queue depth and the applied, superseded and failed update counters")
+    public ResponseEntity<WriteQueueStatsDTO> getStats() {
+        return ResponseEntity.ok(writeBehindService.getStats());
+    }
+
+    @GetMapping("/{trackingId}")
+    @Operation(summary = "Get the status of a queued update", description = "Retrieve whether a queued update is still waiting, was applied, replaced by a later update to the same entity, or failed")
+    public ResponseEntity<WriteStatusDTO> getStatus(@PathVariable String trackingId) {
+        Optional<WriteStatusDTO> status = writeBehindService.getStatus(trackingId);
+        return status.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // 202 pointing at the status resource, or 503 when the queue stayed full
+    static ResponseEntity<WriteStatusDTO> accepted(Optional<WriteStatusDTO> status) {
+        return status.map(queued -> ResponseEntity.accepted()
+                        .location(URI.create("/api/writes/" + queued.getTrackingId()))
+                        .body(queued))
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+}
@@ -12,6 +12,7 @@ public class AuthorDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<BookDTO> books;
+    private AuthorStatsDTO stats;
 
     // Constructors
     public AuthorDTO() {
@@ -49,4 +50,7 @@ public class AuthorDTO {
 
     public List<BookDTO> getBooks() { return books; }
     public void setBooks(List<BookDTO> books) { this.books = books; }
+
+    public AuthorStatsDTO getStats() { return stats; }
+    public void setStats(AuthorStatsDTO stats) { this.stats = stats; }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.bookstore.dto;
+
+import java.math.BigDecimal;
+
+public class AuthorStatsDTO {
+    private long bookCount;
+    private BigDecimal averagePrice;
+    private Integer latestPublicationYear;
+
+    // Constructors
+    public AuthorStatsDTO() {
+    }
+
+    public AuthorStatsDTO(long bookCount, BigDecimal averagePrice, Integer latestPublicationYear) {
+        this.bookCount = bookCount;
+        this.averagePrice = averagePrice;
+        this.latestPublicationYear = latestPublicationYear;
+    }
+
+    // Getters and Setters
+    public long getBookCount() { return bookCount; }
+    public void setBookCount(long bookCount) { this.bookCount = bookCount; }
+
+    public BigDecimal getAveragePrice() { return averagePrice; }
+    public void setAveragePrice(BigDecimal averagePrice) { this.averagePrice = averagePrice; }
+
+    public Integer getLatestPublicationYear() { return latestPublicationYear; }
+    public void setLatestPublicationYear(Integer latestPublicationYear) { this.latestPublicationYear = latestPublicationYear; }
+}
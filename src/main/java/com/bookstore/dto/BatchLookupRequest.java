@@ -0,0 +1,24 @@
+package com.bookstore.dto;
+
+import java.util.List;
+
+public class BatchLookupRequest {
+    private List<Long> ids;
+    private List<String> isbns;
+
+    // Constructors
+    public BatchLookupRequest() {
+    }
+
+    public BatchLookupRequest(List<Long> ids, List<String> isbns) {
+        this.ids = ids;
+        this.isbns = isbns;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public List<String> getIsbns() { return isbns; }
+    public void setIsbns(List<String> isbns) { this.isbns = isbns; }
+}
@@ -0,0 +1,24 @@
+package com.bookstore.dto;
+
+import java.util.List;
+
+public class BatchLookupResult<T, K> {
+    private List<T> items;
+    private List<K> missing;
+
+    // Constructors
+    public BatchLookupResult() {
+    }
+
+    public BatchLookupResult(List<T> items, List<K> missing) {
+        this.items = items;
+        this.missing = missing;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public List<K> getMissing() { return missing; }
+    public void setMissing(List<K> missing) { this.missing = missing; }
+}
@@ -0,0 +1,84 @@
+package com.bookstore.dto;
+
+public class BookColumnsDTO {
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private long[] id;
+    private String[] title;
+    private String[] isbn;
+    private String[] description;
+    private Integer[] publicationYear;
+    private Long[] priceCents;
+    private String[] genre;
+    private Integer[] pageCount;
+    private String[] publisher;
+    private Long[] createdAtMillis;
+    private Long[] updatedAtMillis;
+    private Long[] authorId;
+    private String[] authorName;
+
+    // Constructors
+    public BookColumnsDTO() {
+    }
+
+    public BookColumnsDTO(int number, int size, long totalElements, int totalPages) {
+        this.number = number;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+    }
+
+    // Getters and Setters
+    public int getNumber() { return number; }
+    public void setNumber(int number) { this.number = number; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getTotalElements() { return totalElements; }
+    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+
+    public int getTotalPages() { return totalPages; }
+    public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+
+    public long[] getId() { return id; }
+    public void setId(long[] id) { this.id = id; }
+
+    public String[] getTitle() { return title; }
+    public void setTitle(String[] title) { this.title = title; }
+
+    public String[] getIsbn() { return isbn; }
+    public void setIsbn(String[] isbn) { this.isbn = isbn; }
+
+    public String[] getDescription() { return description; }
+    public void setDescription(String[] description) { this.description = description; }
+
+    public Integer[] getPublicationYear() { return publicationYear; }
+    public void setPublicationYear(Integer[] publicationYear) { this.publicationYear = publicationYear; }
+
+    public Long[] getPriceCents() { return priceCents; }
+    public void setPriceCents(Long[] priceCents) { this.priceCents = priceCents; }
+
+    public String[] getGenre() { return genre; }
+    public void setGenre(String[] genre) { this.genre = genre; }
+
+    public Integer[] getPageCount() { return pageCount; }
+    public void setPageCount(Integer[] pageCount) { this.pageCount = pageCount; }
+
+    public String[] getPublisher() { return publisher; }
+    public void setPublisher(String[] publisher) { this.publisher = publisher; }
+
+    public Long[] getCreatedAtMillis() { return createdAtMillis; }
+    public void setCreatedAtMillis(Long[] createdAtMillis) { this.createdAtMillis = createdAtMillis; }
+
+    public Long[] getUpdatedAtMillis() { return updatedAtMillis; }
+    public void setUpdatedAtMillis(Long[] updatedAtMillis) { this.updatedAtMillis = updatedAtMillis; }
+
+    public Long[] getAuthorId() { return authorId; }
+    public void setAuthorId(Long[] authorId) { this.authorId = authorId; }
+
+    public String[] getAuthorName() { return authorName; }
+    public void setAuthorName(String[] authorName) { this.authorName = authorName; }
+}
@@ -38,6 +38,14 @@ public class BookDTO {
         this.authorName = authorName;
     }
 
+    public BookDTO(Long id, String title, String isbn, String description, Integer publicationYear,
+                   BigDecimal price, String genre, Integer pageCount, String publisher,
+                   LocalDateTime createdAt, LocalDateTime updatedAt, Long authorId, String authorName) {
+        this(id, title, isbn, description, publicationYear, price, genre, pageCount, publisher, authorId, authorName);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,40 @@
+package com.bookstore.dto;
+
+import java.util.Map;
+
+public class BookFacetsDTO {
+    private long total;
+    private Map<String, Long> genres;
+    private Map<String, Long> priceRanges;
+    private Map<String, Long> decades;
+    private Map<String, Long> nationalities;
+
+    // Constructors
+    public BookFacetsDTO() {
+    }
+
+    public BookFacetsDTO(long total, Map<String, Long> genres, Map<String, Long> priceRanges,
+                         Map<String, Long> decades, Map<String, Long> nationalities) {
+        this.total = total;
+        this.genres = genres;
+        this.priceRanges = priceRanges;
+        this.decades = decades;
+        this.nationalities = nationalities;
+    }
+
+    // Getters and Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public Map<String, Long> getGenres() { return genres; }
+    public void setGenres(Map<String, Long> genres) { this.genres = genres; }
+
+    public Map<String, Long> getPriceRanges() { return priceRanges; }
+    public void setPriceRanges(Map<String, Long> priceRanges) { this.priceRanges = priceRanges; }
+
+    public Map<String, Long> getDecades() { return decades; }
+    public void setDecades(Map<String, Long> decades) { this.decades = decades; }
+
+    public Map<String, Long> getNationalities() { return nationalities; }
+    public void setNationalities(Map<String, Long> nationalities) { this.nationalities = nationalities; }
+}
@@ -0,0 +1,27 @@
+package com.bookstore.dto;
+
+public class BulkImportError {
+    private long line;
+    private String key;
+    private String message;
+
+    // Constructors
+    public BulkImportError() {
+    }
+
+    public BulkImportError(long line, String key, String message) {
+        this.line = line;
+        this.key = key;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getLine() { return line; }
+    public void setLine(long line) { this.line = line; }
+
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
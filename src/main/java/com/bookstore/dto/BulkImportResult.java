@@ -0,0 +1,50 @@
+package com.bookstore.dto;
+
+import java.util.List;
+
+public class BulkImportResult {
+    private long received;
+    private long imported;
+    private long failed;
+    private long durationMs;
+    private List<BulkImportError> errors;
+    private boolean errorsTruncated;
+    private boolean aborted;
+
+    // Constructors
+    public BulkImportResult() {
+    }
+
+    public BulkImportResult(long received, long imported, long failed, long durationMs,
+                            List<BulkImportError> errors, boolean errorsTruncated, boolean aborted) {
+        this.received = received;
+        this.imported = imported;
+        this.failed = failed;
+        this.durationMs = durationMs;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+        this.aborted = aborted;
+    }
+
+    // Getters and Setters
+    public long getReceived() { return received; }
+    public void setReceived(long received) { this.received = received; }
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public List<BulkImportError> getErrors() { return errors; }
+    public void setErrors(List<BulkImportError> errors) { this.errors = errors; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+
+    public boolean isAborted() { return aborted; }
+    public void setAborted(boolean aborted) { this.aborted = aborted; }
+}
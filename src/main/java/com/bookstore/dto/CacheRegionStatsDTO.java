@@ -0,0 +1,37 @@
+package com.bookstore.dto;
+
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long evictions;
+
+    // Constructors
+    public CacheRegionStatsDTO() {
+    }
+
+    public CacheRegionStatsDTO(String region, long hits, long misses, long puts, long evictions) {
+        this.region = region;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.evictions = evictions;
+    }
+
+    // Getters and Setters
+    public String getRegion() { return region; }
+    public void setRegion(String region) { this.region = region; }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public long getPuts() { return puts; }
+    public void setPuts(long puts) { this.puts = puts; }
+
+    public long getEvictions() { return evictions; }
+    public void setEvictions(long evictions) { this.evictions = evictions; }
+}
@@ -0,0 +1,47 @@
+package com.bookstore.dto;
+
+import java.time.LocalDateTime;
+
+public class ChangeDTO {
+    private Long sequence;
+    private String entityType;
+    private Long entityId;
+    private String operation;
+    private LocalDateTime changedAt;
+    private BookDTO book;
+    private AuthorDTO author;
+
+    // Constructors
+    public ChangeDTO() {
+    }
+
+    public ChangeDTO(Long sequence, String entityType, Long entityId, String operation, LocalDateTime changedAt) {
+        this.sequence = sequence;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.changedAt = changedAt;
+    }
+
+    // Getters and Setters
+    public Long getSequence() { return sequence; }
+    public void setSequence(Long sequence) { this.sequence = sequence; }
+
+    public String getEntityType() { return entityType; }
+    public void setEntityType(String entityType) { this.entityType = entityType; }
+
+    public Long getEntityId() { return entityId; }
+    public void setEntityId(Long entityId) { this.entityId = entityId; }
+
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+
+    public BookDTO getBook() { return book; }
+    public void setBook(BookDTO book) { this.book = book; }
+
+    public AuthorDTO getAuthor() { return author; }
+    public void setAuthor(AuthorDTO author) { this.author = author; }
+}
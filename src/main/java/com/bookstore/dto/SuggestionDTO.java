@@ -0,0 +1,27 @@
+package com.bookstore.dto;
+
+public class SuggestionDTO {
+    private String type;
+    private Long id;
+    private String text;
+
+    // Constructors
+    public SuggestionDTO() {
+    }
+
+    public SuggestionDTO(String type, Long id, String text) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+}
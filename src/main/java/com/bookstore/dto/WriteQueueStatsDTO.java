@@ -0,0 +1,48 @@
+package com.bookstore.dto;
+
+public class WriteQueueStatsDTO {
+    private int pending;
+    private int capacity;
+    private int batchSize;
+    private long applied;
+    private long superseded;
+    private long failed;
+    private long batches;
+
+    // Constructors
+    public WriteQueueStatsDTO() {
+    }
+
+    public WriteQueueStatsDTO(int pending, int capacity, int batchSize, long applied, long superseded, long failed,
+                              long batches) {
+        this.pending = pending;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.applied = applied;
+        this.superseded = superseded;
+        this.failed = failed;
+        this.batches = batches;
+    }
+
+    // Getters and Setters
+    public int getPending() { return pending; }
+    public void setPending(int pending) { this.pending = pending; }
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public long getApplied() { return applied; }
+    public void setApplied(long applied) { this.applied = applied; }
+
+    public long getSuperseded() { return superseded; }
+    public void setSuperseded(long superseded) { this.superseded = superseded; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getBatches() { return batches; }
+    public void setBatches(long batches) { this.batches = batches; }
+}
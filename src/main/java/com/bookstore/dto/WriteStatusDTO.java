@@ -0,0 +1,54 @@
+package com.bookstore.dto;
+
+import java.time.LocalDateTime;
+
+public class WriteStatusDTO {
+    private String trackingId;
+    private String entityType;
+    private Long entityId;
+    private State state;
+    private String message;
+    private LocalDateTime queuedAt;
+    private LocalDateTime completedAt;
+
+    public enum State {
+        QUEUED, APPLIED, SUPERSEDED, NOT_FOUND, FAILED
+    }
+
+    // Constructors
+    public WriteStatusDTO() {
+    }
+
+    public WriteStatusDTO(String trackingId, String entityType, Long entityId, State state, String message,
+                          LocalDateTime queuedAt, LocalDateTime completedAt) {
+        this.trackingId = trackingId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.state = state;
+        this.message = message;
+        this.queuedAt = queuedAt;
+        this.completedAt = completedAt;
+    }
+
+    // Getters and Setters
+    public String getTrackingId() { return trackingId; }
+    public void setTrackingId(String trackingId) { this.trackingId = trackingId; }
+
+    public String getEntityType() { return entityType; }
+    public void setEntityType(String entityType) { this.entityType = entityType; }
+
+    public Long getEntityId() { return entityId; }
+    public void setEntityId(Long entityId) { this.entityId = entityId; }
+
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getQueuedAt() { return queuedAt; }
+    public void setQueuedAt(LocalDateTime queuedAt) { this.queuedAt = queuedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,82 @@
+package com.bookstore.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adds an interceptor to every Spring Data repository that records how many
+ * rows each query method returned as {@code bookstore.repository.rows}. The
+ * invocation timings themselves come from Spring Boot's
+ * {@code spring.data.repository.invocations} timer.
+ */
+public class RepositoryRowCountPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryRowCountPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+            repositoryFactoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repository) -> proxyFactory.addAdvice(new RowCountInterceptor(
+                            repository.getRepositoryInterface().getSimpleName(), repository.getDomainType()))));
+        }
+        return bean;
+    }
+
+    private final class RowCountInterceptor implements MethodInterceptor {
+
+        private final String repository;
+        private final Class<?> domainType;
+        private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+        RowCountInterceptor(String repository, Class<?> domainType) {
+            this.repository = repository;
+            this.domainType = domainType;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            long rows = rows(result);
+            if (rows >= 0) {
+                summaries.computeIfAbsent(invocation.getMethod(), method -> DistributionSummary
+                                .builder("bookstore.repository.rows")
+                                .description("Rows returned by a repository method")
+                                .tag("repository", repository)
+                                .tag("method", method.getName())
+                                .register(meterRegistry.getObject()))
+                        .record(rows);
+            }
+            return result;
+        }
+
+        private long rows(Object result) {
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            } else if (result instanceof Slice<?> slice) {
+                return slice.getNumberOfElements();
+            } else if (result instanceof Optional<?> optional) {
+                return optional.isPresent() ? 1 : 0;
+            } else if (domainType.isInstance(result)) {
+                return 1;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.bookstore.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Records how many JDBC statements each request prepared, tagged like
+ * {@code http.server.requests}, and logs the statement fingerprints of
+ * requests slower than {@code bookstore.metrics.slow-request-threshold}.
+ * Async requests are recorded when their async processing completes.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bookstore.metrics.slow-request-threshold:500ms}")
+    private Duration slowRequestThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementRecorder.RequestStatements statements = SqlStatementRecorder.begin();
+        request.setAttribute(SqlStatementRecorder.REQUEST_ATTRIBUTE, statements);
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementRecorder.end();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, statements, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, statements, start);
+            }
+        }
+    }
+
+    /**
+     * Records the statement count once the request is done, which for async
+     * requests is when the async processing completes.
+     */
+    private void record(HttpServletRequest request, SqlStatementRecorder.RequestStatements statements, long start) {
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("bookstore.http.jdbc.statements")
+                .description("JDBC statements prepared per request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(statements.count());
+        if (elapsedMs >= slowRequestThreshold.toMillis()) {
+            String query = request.getQueryString();
+            log.warn("Slow request {} {} took {} ms with {} JDBC statements:{}", request.getMethod(),
+                    query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query,
+                    elapsedMs, statements.count(), statements.summary());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.bookstore.metrics;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Counts the statements of async request processing (streamed exports and
+ * other {@link Callable} handlers) with the request that started it, by
+ * binding the request's statements on the thread that runs the task.
+ */
+public class SqlStatementAsyncInterceptor implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        Object statements = request.getAttribute(SqlStatementRecorder.REQUEST_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (statements instanceof SqlStatementRecorder.RequestStatements requestStatements) {
+            SqlStatementRecorder.resume(requestStatements);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        SqlStatementRecorder.end();
+    }
+}
@@ -0,0 +1,106 @@
+package com.bookstore.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Hibernate statement inspector that counts the SQL statements prepared while a
+ * request is being handled and groups them by fingerprint: the SQL with
+ * literals and bind-parameter lists collapsed, so {@code IN (?, ?, ?)} and
+ * {@code IN (?, ?)} count as the same statement. Statements of async request
+ * processing, such as streamed exports, are carried over by
+ * {@link SqlStatementAsyncInterceptor}.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    static final String REQUEST_ATTRIBUTE = SqlStatementRecorder.class.getName() + ".statements";
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    static RequestStatements begin() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    static void resume(RequestStatements statements) {
+        CURRENT.set(statements);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.record(sql);
+        }
+        return sql;
+    }
+
+    static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = PARAMETER_LIST.matcher(normalized).replaceAll("(?+)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Keeps the raw SQL of a request and only fingerprints it when a summary
+     * is asked for, which happens for slow requests alone. Synchronized since
+     * async processing records from another thread.
+     */
+    static final class RequestStatements {
+
+        private static final int MAX_STATEMENTS = 100;
+        private static final int MAX_FINGERPRINTS = 20;
+
+        private final Map<String, Integer> statements = new LinkedHashMap<>();
+        private int count;
+        private int untracked;
+
+        synchronized void record(String sql) {
+            count++;
+            if (statements.containsKey(sql) || statements.size() < MAX_STATEMENTS) {
+                statements.merge(sql, 1, Integer::sum);
+            } else {
+                untracked++;
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized String summary() {
+            Map<String, Integer> fingerprints = new LinkedHashMap<>();
+            int other = untracked;
+            for (Map.Entry<String, Integer> statement : statements.entrySet()) {
+                String fingerprint = fingerprint(statement.getKey());
+                if (fingerprints.containsKey(fingerprint) || fingerprints.size() < MAX_FINGERPRINTS) {
+                    fingerprints.merge(fingerprint, statement.getValue(), Integer::sum);
+                } else {
+                    other += statement.getValue();
+                }
+            }
+            StringBuilder summary = new StringBuilder();
+            fingerprints.forEach((fingerprint, times) ->
+                    summary.append("\n  ").append(times).append(" x ").append(fingerprint));
+            if (other > 0) {
+                summary.append("\n  ").append(other).append(" x (other statements)");
+            }
+            return summary.toString();
+        }
+    }
+}
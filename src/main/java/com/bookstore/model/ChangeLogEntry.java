@@ -0,0 +1,40 @@
+package com.bookstore.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.time.LocalDateTime;
+
+/**
+ * A row of the change log. Rows are only ever appended, by
+ * {@link com.bookstore.repository.ChangeLogListener}, so the entity is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "change_log")
+public class ChangeLogEntry {
+
+    public enum Operation { UPSERT, DELETE }
+
+    @Id
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 10)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 10)
+    private Operation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // Getters
+    public Long getId() { return id; }
+    public String getEntityType() { return entityType; }
+    public Long getEntityId() { return entityId; }
+    public Operation getOperation() { return operation; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
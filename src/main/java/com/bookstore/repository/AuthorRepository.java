@@ -1,23 +1,39 @@
 package com.bookstore.repository;
 
 import com.bookstore.model.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+public interface AuthorRepository extends JpaRepository<Author, Long>, JpaSpecificationExecutor<Author>,
+        AuthorRepositoryCustom {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "author-queries")
+    })
     Optional<Author> findByEmail(String email);
 
     List<Author> findByNameContainingIgnoreCase(String name);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "author-queries")
+    })
     List<Author> findByNationality(String nationality);
 
     Page<Author> findAll(Pageable pageable);
@@ -26,4 +42,42 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     Page<Author> findByNameContaining(@Param("name") String name, Pageable pageable);
 
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    @Query("SELECT a.email FROM Author a WHERE a.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT new com.bookstore.repository.AuthorRepository$NationalityView(a.id, a.name, a.nationality) " +
+            "FROM Author a WHERE a.id IN :ids")
+    List<NationalityView> findNationalities(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "author-queries")
+    })
+    @Query("SELECT a.updatedAt FROM Author a WHERE a.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "author-queries")
+    })
+    @Query("SELECT new com.bookstore.repository.CollectionVersion(COUNT(a), MAX(a.updatedAt)) FROM Author a")
+    CollectionVersion findCollectionVersion();
+
+    @Query("SELECT new com.bookstore.repository.AuthorRepository$NameView(a.id, a.name) FROM Author a")
+    List<NameView> findAllNames();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT a FROM Author a")
+    Stream<Author> streamAll();
+
+    record NameView(Long id, String name) {
+    }
+
+    record NationalityView(Long id, String name, String nationality) {
+    }
+}
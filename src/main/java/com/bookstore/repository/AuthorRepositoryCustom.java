@@ -0,0 +1,18 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.AuthorDTO;
+import com.bookstore.model.Author;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AuthorRepositoryCustom {
+
+    Page<AuthorDTO> findDTOs(Specification<Author> specification, Pageable pageable, Collection<String> fields);
+
+    List<AuthorDTO> findDTOs(Specification<Author> specification, Sort sort, Collection<String> fields);
+}
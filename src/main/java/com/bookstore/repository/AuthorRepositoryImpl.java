@@ -0,0 +1,43 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.AuthorDTO;
+import com.bookstore.model.Author;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Author listings with a fieldset, selecting only the requested columns.
+ */
+class AuthorRepositoryImpl implements AuthorRepositoryCustom {
+
+    private static final FieldProjection<Author, AuthorDTO> FIELDS =
+            new FieldProjection<>(Author.class, AuthorDTO::new)
+                    .column("id", Long.class, author -> author.get("id"), AuthorDTO::setId)
+                    .column("name", String.class, author -> author.get("name"), AuthorDTO::setName)
+                    .column("email", String.class, author -> author.get("email"), AuthorDTO::setEmail)
+                    .column("bio", String.class, author -> author.get("bio"), AuthorDTO::setBio)
+                    .column("nationality", String.class, author -> author.get("nationality"), AuthorDTO::setNationality)
+                    .column("createdAt", LocalDateTime.class, author -> author.get("createdAt"), AuthorDTO::setCreatedAt)
+                    .column("updatedAt", LocalDateTime.class, author -> author.get("updatedAt"), AuthorDTO::setUpdatedAt);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<AuthorDTO> findDTOs(Specification<Author> specification, Pageable pageable, Collection<String> fields) {
+        return FIELDS.page(entityManager, specification, pageable, fields);
+    }
+
+    @Override
+    public List<AuthorDTO> findDTOs(Specification<Author> specification, Sort sort, Collection<String> fields) {
+        return FIELDS.list(entityManager, specification, sort, fields);
+    }
+}
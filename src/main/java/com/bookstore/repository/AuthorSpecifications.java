@@ -0,0 +1,28 @@
+package com.bookstore.repository;
+
+import com.bookstore.model.Author;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Author filters as Specifications, the same conditions as the derived and
+ * {@code @Query} finders of {@link AuthorRepository}.
+ */
+public final class AuthorSpecifications {
+
+    private AuthorSpecifications() {
+    }
+
+    public static Specification<Author> nameContains(String name) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%");
+    }
+
+    public static Specification<Author> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Author> withNationality(String nationality) {
+        return (root, query, cb) -> cb.equal(root.get("nationality"), nationality);
+    }
+}
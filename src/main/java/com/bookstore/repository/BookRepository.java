@@ -1,47 +1,140 @@
 package com.bookstore.repository;
 
+import com.bookstore.dto.BookDTO;
 import com.bookstore.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>,
+        BookRepositoryCustom {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "book-queries")
+    })
     Optional<Book> findByIsbn(String isbn);
 
     List<Book> findByTitleContainingIgnoreCase(String title);
 
-    List<Book> findByGenre(String genre);
+    String DTO_QUERY = "SELECT new com.bookstore.dto.BookDTO(b.id, b.title, b.isbn, b.description, " +
+            "b.publicationYear, b.price, b.genre, b.pageCount, b.publisher, b.createdAt, b.updatedAt, " +
+            "a.id, a.name) FROM Book b LEFT JOIN b.author a ";
 
-    List<Book> findByAuthorId(Long authorId);
+    @Query(DTO_QUERY)
+    List<BookDTO> findAllDTOs();
 
-    List<Book> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+    @Query(value = DTO_QUERY, countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookDTO> findAllDTOs(Pageable pageable);
 
-    List<Book> findByPublicationYearBetween(Integer startYear, Integer endYear);
+    @Query(DTO_QUERY + "WHERE b.id IN :ids")
+    List<BookDTO> findByIdIn(@Param("ids") Collection<Long> ids);
 
-    Page<Book> findAll(Pageable pageable);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "book-queries")
+    })
+    @Query(DTO_QUERY + "WHERE b.genre = :genre")
+    List<BookDTO> findByGenre(@Param("genre") String genre);
+
+    @Query(DTO_QUERY + "WHERE b.author.id = :authorId")
+    List<BookDTO> findByAuthorId(@Param("authorId") Long authorId);
+
+    @Query(DTO_QUERY + "WHERE b.price BETWEEN :minPrice AND :maxPrice")
+    List<BookDTO> findByPriceBetween(@Param("minPrice") BigDecimal minPrice,
+                                     @Param("maxPrice") BigDecimal maxPrice);
 
-    @Query("SELECT b FROM Book b WHERE " +
-            "LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')) AND " +
-            "(:genre IS NULL OR b.genre = :genre) AND " +
-            "(:minPrice IS NULL OR b.price >= :minPrice) AND " +
-            "(:maxPrice IS NULL OR b.price <= :maxPrice)")
-    Page<Book> findByFilters(@Param("title") String title,
-                             @Param("genre") String genre,
-                             @Param("minPrice") BigDecimal minPrice,
-                             @Param("maxPrice") BigDecimal maxPrice,
-                             Pageable pageable);
+    @Query(DTO_QUERY + "WHERE b.publicationYear BETWEEN :startYear AND :endYear")
+    List<BookDTO> findByPublicationYearBetween(@Param("startYear") Integer startYear,
+                                               @Param("endYear") Integer endYear);
 
-    @Query("SELECT b FROM Book b JOIN b.author a WHERE a.id = :authorId")
-    Page<Book> findByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+    Page<Book> findAll(Pageable pageable);
+
+    @Query(value = DTO_QUERY + "WHERE b.author.id = :authorId",
+            countQuery = "SELECT COUNT(b) FROM Book b WHERE b.author.id = :authorId")
+    Page<BookDTO> findByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
 
     boolean existsByIsbn(String isbn);
-}
\ No newline at end of file
+
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author WHERE b.isbn IN :isbns")
+    List<Book> findByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author")
+    Stream<Book> streamAll();
+
+    @Query("SELECT new com.bookstore.repository.BookRepository$TitleView(b.id, b.title) FROM Book b")
+    List<TitleView> findAllTitles();
+
+    @Query("SELECT new com.bookstore.repository.BookRepository$FacetView(b.id, b.genre, b.price, " +
+            "b.publicationYear, a.nationality) FROM Book b LEFT JOIN b.author a")
+    List<FacetView> findAllFacetViews();
+
+    @Query("SELECT b.id FROM Book b WHERE b.author.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "book-queries")
+    })
+    @Query("SELECT new com.bookstore.repository.BookRepository$VersionView(b.updatedAt, a.updatedAt) " +
+            "FROM Book b LEFT JOIN b.author a WHERE b.id = :id")
+    Optional<VersionView> findVersionById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "book-queries")
+    })
+    @Query("SELECT new com.bookstore.repository.CollectionVersion(COUNT(b), MAX(b.updatedAt)) FROM Book b")
+    CollectionVersion findCollectionVersion();
+
+    @Query("SELECT new com.bookstore.repository.BookRepository$BookCountView(b.author.id, COUNT(b)) " +
+            "FROM Book b GROUP BY b.author.id")
+    List<BookCountView> countBooksByAuthor();
+
+    @Query("SELECT b.author.id FROM Book b WHERE b.id = :id")
+    Optional<Long> findAuthorIdById(@Param("id") Long id);
+
+    @Query("SELECT new com.bookstore.repository.BookRepository$AuthorStatsView(b.author.id, COUNT(b), " +
+            "COUNT(b.price), SUM(b.price), MAX(b.publicationYear)) " +
+            "FROM Book b WHERE b.author.id IN :authorIds GROUP BY b.author.id")
+    List<AuthorStatsView> findAuthorStats(@Param("authorIds") Collection<Long> authorIds);
+
+    record BookCountView(Long authorId, Long bookCount) {
+    }
+
+    record TitleView(Long id, String title) {
+    }
+
+    record FacetView(Long id, String genre, BigDecimal price, Integer publicationYear, String nationality) {
+    }
+
+    record VersionView(LocalDateTime updatedAt, LocalDateTime authorUpdatedAt) {
+    }
+
+    record AuthorStatsView(Long authorId, Long bookCount, Long pricedCount, BigDecimal priceTotal,
+                           Integer latestPublicationYear) {
+    }
+}
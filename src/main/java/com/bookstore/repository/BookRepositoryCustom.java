@@ -0,0 +1,28 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.BookDTO;
+import com.bookstore.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+public interface BookRepositoryCustom {
+
+    Page<BookDTO> findDTOs(Specification<Book> specification, Pageable pageable);
+
+    Page<BookDTO> findDTOs(Specification<Book> specification, Pageable pageable, Collection<String> fields);
+
+    List<BookDTO> findDTOs(Specification<Book> specification, Sort sort, Collection<String> fields);
+
+    /**
+     * Hands the ids of the matching books to {@code action} in sort order
+     * until it returns false. Only ids are read, so a large result is cheap
+     * to walk.
+     */
+    void forEachId(Specification<Book> specification, Sort sort, LongPredicate action);
+}
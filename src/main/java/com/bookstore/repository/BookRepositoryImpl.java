@@ -0,0 +1,117 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.BookDTO;
+import com.bookstore.model.Author;
+import com.bookstore.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Runs a Specification as the same {@link BookDTO} constructor projection as
+ * {@link BookRepository#DTO_QUERY}, so dynamically built filters keep the
+ * single-statement, no-entity read path of the static queries. With a
+ * fieldset only the requested columns are selected, and the author is joined
+ * only for {@code authorName}.
+ */
+class BookRepositoryImpl implements BookRepositoryCustom {
+
+    private static final FieldProjection<Book, BookDTO> FIELDS = new FieldProjection<>(Book.class, BookDTO::new)
+            .column("id", Long.class, book -> book.get("id"), BookDTO::setId)
+            .column("title", String.class, book -> book.get("title"), BookDTO::setTitle)
+            .column("isbn", String.class, book -> book.get("isbn"), BookDTO::setIsbn)
+            .column("description", String.class, book -> book.get("description"), BookDTO::setDescription)
+            .column("publicationYear", Integer.class, book -> book.get("publicationYear"), BookDTO::setPublicationYear)
+            .column("price", BigDecimal.class, book -> book.get("price"), BookDTO::setPrice)
+            .column("genre", String.class, book -> book.get("genre"), BookDTO::setGenre)
+            .column("pageCount", Integer.class, book -> book.get("pageCount"), BookDTO::setPageCount)
+            .column("publisher", String.class, book -> book.get("publisher"), BookDTO::setPublisher)
+            .column("createdAt", LocalDateTime.class, book -> book.get("createdAt"), BookDTO::setCreatedAt)
+            .column("updatedAt", LocalDateTime.class, book -> book.get("updatedAt"), BookDTO::setUpdatedAt)
+            .column("authorId", Long.class, book -> book.get("author").get("id"), BookDTO::setAuthorId)
+            .column("authorName", String.class, book -> FieldProjection.leftJoin(book, "author").get("name"),
+                    BookDTO::setAuthorName);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<BookDTO> findDTOs(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookDTO> query = cb.createQuery(BookDTO.class);
+        Root<Book> book = query.from(Book.class);
+        Join<Book, Author> author = book.join("author", JoinType.LEFT);
+        query.select(cb.construct(BookDTO.class, book.get("id"), book.get("title"), book.get("isbn"),
+                book.get("description"), book.get("publicationYear"), book.get("price"), book.get("genre"),
+                book.get("pageCount"), book.get("publisher"), book.get("createdAt"), book.get("updatedAt"),
+                author.get("id"), author.get("name")));
+        Predicate predicate = specification.toPredicate(book, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), book, cb));
+
+        TypedQuery<BookDTO> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(specification));
+    }
+
+    @Override
+    public Page<BookDTO> findDTOs(Specification<Book> specification, Pageable pageable, Collection<String> fields) {
+        return FIELDS.page(entityManager, specification, pageable, fields);
+    }
+
+    @Override
+    public List<BookDTO> findDTOs(Specification<Book> specification, Sort sort, Collection<String> fields) {
+        return FIELDS.list(entityManager, specification, sort, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachId(Specification<Book> specification, Sort sort, LongPredicate action) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(book.get("id"));
+        Predicate predicate = specification.toPredicate(book, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, book, cb));
+        try (Stream<Long> ids = entityManager.createQuery(query).getResultStream()) {
+            Iterator<Long> iterator = ids.iterator();
+            boolean more = true;
+            while (more && iterator.hasNext()) {
+                more = action.test(iterator.next());
+            }
+        }
+    }
+
+    private long count(Specification<Book> specification) {
+        return FieldProjection.count(entityManager, Book.class, specification);
+    }
+}
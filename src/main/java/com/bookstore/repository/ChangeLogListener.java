@@ -0,0 +1,112 @@
+package com.bookstore.repository;
+
+import com.bookstore.model.Author;
+import com.bookstore.model.Book;
+import com.bookstore.model.ChangeLogEntry.Operation;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Appends a change log row for every book and author inserted, updated or
+ * deleted, in the transaction that makes the change. Changes are collected
+ * per session as Hibernate flushes them and written in one JDBC batch just
+ * before the commit, after the writer has locked the log head row. Ids are
+ * therefore handed out in commit order: a reader that has seen id n can never
+ * later miss a row with a smaller id committed by a slower transaction. A
+ * rollback discards the collected changes with the rest of the transaction.
+ */
+public class ChangeLogListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String LOCK_HEAD = "SELECT id FROM change_log_head WHERE id = 1 FOR UPDATE";
+
+    private static final String APPEND =
+            "INSERT INTO change_log (entity_type, entity_id, operation, changed_at) VALUES (?, ?, ?, ?)";
+
+    private final Map<SharedSessionContractImplementor, PendingChanges> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), Operation.UPSERT);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), Operation.UPSERT);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getSession(), event.getEntity(), event.getId(), Operation.DELETE);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, Object entity, Object id, Operation operation) {
+        String type = entity instanceof Book ? "book" : entity instanceof Author ? "author" : null;
+        if (type == null) {
+            return;
+        }
+        pending.computeIfAbsent(session, key -> {
+            PendingChanges changes = new PendingChanges();
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) changes);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) changes);
+            return changes;
+        }).changes.add(new Change(type, (Long) id, operation));
+    }
+
+    private record Change(String entityType, long entityId, Operation operation) {
+    }
+
+    private class PendingChanges implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final List<Change> changes = new ArrayList<>();
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            pending.remove(session);
+            session.doWork(connection -> {
+                try (PreparedStatement head = connection.prepareStatement(LOCK_HEAD)) {
+                    head.executeQuery().close();
+                }
+                try (PreparedStatement append = connection.prepareStatement(APPEND)) {
+                    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                    for (Change change : changes) {
+                        append.setString(1, change.entityType());
+                        append.setLong(2, change.entityId());
+                        append.setString(3, change.operation().name());
+                        append.setTimestamp(4, now);
+                        append.addBatch();
+                    }
+                    append.executeBatch();
+                }
+            });
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            // Already gone after a commit; after a rollback the changes never reached the log
+            pending.remove(session);
+        }
+    }
+}
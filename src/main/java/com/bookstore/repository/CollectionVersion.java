@@ -0,0 +1,6 @@
+package com.bookstore.repository;
+
+import java.time.LocalDateTime;
+
+public record CollectionVersion(Long count, LocalDateTime lastUpdatedAt) {
+}
@@ -0,0 +1,145 @@
+package com.bookstore.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sparse fieldsets: selects only the requested DTO properties as a tuple and
+ * copies them into an otherwise empty DTO, so columns nobody asked for are
+ * neither read from the database nor copied. The first column is always
+ * selected; joins are added only for requested columns that need them.
+ */
+final class FieldProjection<T, D> {
+
+    private final Class<T> entityType;
+    private final Supplier<D> newDto;
+    private final Map<String, Column<T, D, ?>> columns = new LinkedHashMap<>();
+
+    FieldProjection(Class<T> entityType, Supplier<D> newDto) {
+        this.entityType = entityType;
+        this.newDto = newDto;
+    }
+
+    <V> FieldProjection<T, D> column(String name, Class<V> type, Function<Root<T>, Expression<V>> path,
+                                     BiConsumer<D, V> setter) {
+        columns.put(name, new Column<>(type, path, setter));
+        return this;
+    }
+
+    Page<D> page(EntityManager entityManager, Specification<T> specification, Pageable pageable,
+                 Collection<String> fields) {
+        TypedQuery<Tuple> query = query(entityManager, specification, pageable.getSort(), fields);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Column<T, D, ?>> selected = select(fields);
+        return PageableExecutionUtils.getPage(toDtos(query.getResultList(), selected), pageable,
+                () -> count(entityManager, entityType, specification));
+    }
+
+    List<D> list(EntityManager entityManager, Specification<T> specification, Sort sort, Collection<String> fields) {
+        return toDtos(query(entityManager, specification, sort, fields).getResultList(), select(fields));
+    }
+
+    static <T> long count(EntityManager entityManager, Class<T> entityType, Specification<T> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+        query.select(cb.count(root));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * The left join for an association, shared by every column that reads
+     * through it.
+     */
+    static <T> Join<T, ?> leftJoin(Root<T> root, String attribute) {
+        for (Join<T, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute) && join.getJoinType() == JoinType.LEFT) {
+                return join;
+            }
+        }
+        return root.join(attribute, JoinType.LEFT);
+    }
+
+    private TypedQuery<Tuple> query(EntityManager entityManager, Specification<T> specification, Sort sort,
+                                    Collection<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityType);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (Column<T, D, ?> column : select(fields)) {
+            selections.add(column.path().apply(root));
+        }
+        query.multiselect(selections);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    private List<Column<T, D, ?>> select(Collection<String> fields) {
+        List<Column<T, D, ?>> selected = new ArrayList<>(fields.size() + 1);
+        selected.add(columns.values().iterator().next());
+        for (String field : fields) {
+            Column<T, D, ?> column = columns.get(field);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown field '" + field + "', expected one of " + columns.keySet());
+            }
+            if (!selected.contains(column)) {
+                selected.add(column);
+            }
+        }
+        return selected;
+    }
+
+    private List<D> toDtos(List<Tuple> rows, List<Column<T, D, ?>> selected) {
+        List<D> dtos = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            D dto = newDto.get();
+            for (int i = 0; i < selected.size(); i++) {
+                selected.get(i).copy(dto, row.get(i));
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private record Column<T, D, V>(Class<V> type, Function<Root<T>, Expression<V>> path, BiConsumer<D, V> setter) {
+
+        void copy(D dto, Object value) {
+            setter.accept(dto, type.cast(value));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bookstore.search;
+
+import com.bookstore.model.Author;
+import com.bookstore.repository.AuthorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Author names in a {@link TextIndex}, searched with typo tolerance: names
+ * containing the query first, then names sharing at least
+ * {@code bookstore.search.author-similarity} of its trigrams.
+ */
+@Component
+public class AuthorSearchIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorSearchIndex.class);
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Value("${bookstore.search.author-similarity:0.4}")
+    private double minSimilarity;
+
+    private final TextIndex names = new TextIndex();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        names.clear();
+        for (AuthorRepository.NameView author : authorRepository.findAllNames()) {
+            names.put(author.id(), author.name());
+        }
+        log.info("Indexed {} author names in {} ms", names.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public List<Long> searchByName(String name) {
+        return names.searchSimilar(name, minSimilarity);
+    }
+
+    public void index(Author author) {
+        names.put(author.getId(), author.getName());
+    }
+
+    public void remove(Long authorId) {
+        names.remove(authorId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.BookFacetsDTO;
+import com.bookstore.model.Book;
+import com.bookstore.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+@Component
+public class BookFacetIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(BookFacetIndex.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final CatalogFacets facets = new CatalogFacets();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        facets.clear();
+        for (BookRepository.FacetView book : bookRepository.findAllFacetViews()) {
+            facets.put(book.id(), book.genre(), book.price(), book.publicationYear(), book.nationality());
+        }
+        log.info("Indexed {} books for facets in {} ms", facets.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public BookFacetsDTO count(String genre, BigDecimal minPrice, BigDecimal maxPrice) {
+        return facets.count(genre, minPrice, maxPrice);
+    }
+
+    public BookFacetsDTO count(Collection<Long> bookIds, String genre, BigDecimal minPrice, BigDecimal maxPrice) {
+        return facets.count(bookIds, genre, minPrice, maxPrice);
+    }
+
+    public void index(Book book) {
+        index(book, book.getAuthor() == null ? null : book.getAuthor().getNationality());
+    }
+
+    public void index(Book book, String nationality) {
+        facets.put(book.getId(), book.getGenre(), book.getPrice(), book.getPublicationYear(), nationality);
+    }
+
+    public void updateNationality(Collection<Long> bookIds, String nationality) {
+        facets.setNationality(bookIds, nationality);
+    }
+
+    public void remove(Long bookId) {
+        facets.remove(bookId);
+    }
+
+    public void removeAll(Collection<Long> bookIds) {
+        bookIds.forEach(facets::remove);
+    }
+}
@@ -0,0 +1,53 @@
+package com.bookstore.search;
+
+import com.bookstore.model.Book;
+import com.bookstore.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+@Component
+public class BookSearchIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final TextIndex titles = new TextIndex();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        titles.clear();
+        for (BookRepository.TitleView book : bookRepository.findAllTitles()) {
+            titles.put(book.id(), book.title());
+        }
+        log.info("Indexed {} book titles in {} ms", titles.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public List<Long> searchByTitle(String title) {
+        return titles.search(title);
+    }
+
+    public void index(Book book) {
+        titles.put(book.getId(), book.getTitle());
+    }
+
+    public void remove(Long bookId) {
+        titles.remove(bookId);
+    }
+
+    public void removeAll(Collection<Long> bookIds) {
+        bookIds.forEach(titles::remove);
+    }
+}
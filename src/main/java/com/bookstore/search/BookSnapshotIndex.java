@@ -0,0 +1,134 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.BookDTO;
+import com.bookstore.model.Author;
+import com.bookstore.model.Book;
+import com.bookstore.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Keeps the {@link CatalogSnapshot} in step with the catalog when
+ * {@code bookstore.catalog.snapshot.enabled} is set. While it is off every
+ * query answers empty and the callers read from the database.
+ */
+@Component
+public class BookSnapshotIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSnapshotIndex.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${bookstore.catalog.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${bookstore.catalog.snapshot.parallelism:0}")
+    private int parallelism;
+
+    @Value("${bookstore.catalog.snapshot.parallel-threshold:50000}")
+    private int parallelThreshold;
+
+    private ForkJoinPool pool;
+
+    private CatalogSnapshot snapshot;
+
+    /**
+     * Scans large enough to be worth splitting run in their own pool, so they
+     * neither queue behind nor hold up other users of the common pool.
+     */
+    @PostConstruct
+    void createSnapshot() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        snapshot = new CatalogSnapshot(pool, parallelThreshold);
+    }
+
+    @PreDestroy
+    void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        snapshot.clear();
+        for (BookDTO book : bookRepository.findAllDTOs()) {
+            snapshot.put(book);
+        }
+        log.info("Loaded {} books into the catalog snapshot in {} ms", snapshot.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public Optional<List<BookDTO>> findByGenre(String genre) {
+        return enabled ? Optional.of(snapshot.findByGenre(genre)) : Optional.empty();
+    }
+
+    public Optional<List<BookDTO>> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return enabled ? Optional.of(snapshot.findByPriceBetween(minPrice, maxPrice)) : Optional.empty();
+    }
+
+    public Optional<Page<BookDTO>> find(Collection<Long> bookIds, String genre, BigDecimal minPrice,
+                                       BigDecimal maxPrice, Pageable pageable) {
+        return enabled ? snapshot.find(bookIds, genre, minPrice, maxPrice, pageable) : Optional.empty();
+    }
+
+    public void index(Book book) {
+        Author author = book.getAuthor();
+        index(book, author != null && Hibernate.isInitialized(author) ? author.getName() : null);
+    }
+
+    /**
+     * Indexes a book whose author may be an uninitialized reference, with the
+     * author's name looked up by the caller.
+     */
+    public void index(Book book, String authorName) {
+        if (enabled) {
+            snapshot.put(new BookDTO(book.getId(), book.getTitle(), book.getIsbn(), book.getDescription(),
+                    book.getPublicationYear(), book.getPrice(), book.getGenre(), book.getPageCount(),
+                    book.getPublisher(), book.getCreatedAt(), book.getUpdatedAt(),
+                    book.getAuthor() == null ? null : book.getAuthor().getId(), authorName));
+        }
+    }
+
+    public void renameAuthor(Long authorId, String name) {
+        if (enabled) {
+            snapshot.renameAuthor(authorId, name);
+        }
+    }
+
+    public void remove(Long bookId) {
+        if (enabled) {
+            snapshot.remove(bookId);
+        }
+    }
+
+    public void removeAll(Collection<Long> bookIds) {
+        if (enabled) {
+            bookIds.forEach(snapshot::remove);
+        }
+    }
+}
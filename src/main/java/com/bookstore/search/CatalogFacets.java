@@ -0,0 +1,344 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.BookFacetsDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe in-memory facet counts over the catalog: genre, price range,
+ * publication decade and author nationality, for any genre and price filter.
+ * <p>
+ * Books are grouped by (genre, decade, nationality). Each group keeps its
+ * prices sorted together with its per-range counts, so a query costs at most
+ * two binary searches per group instead of a pass over every book, and an
+ * update only touches the book's own group.
+ * <p>
+ * Genre counts ignore the genre filter and price range counts ignore the price
+ * filter, so they show what selecting another genre or range would return;
+ * the total and the other counts apply every filter.
+ */
+public class CatalogFacets {
+
+    private static final int[] PRICE_RANGE_BOUNDS = {1000, 2000, 3000, 5000, 10000};
+    private static final String[] PRICE_RANGE_LABELS = {"0-10", "10-20", "20-30", "30-50", "50-100", "100+"};
+    private static final int NO_PRICE = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Dictionary genres = new Dictionary();
+    private final Dictionary decades = new Dictionary();
+    private final Dictionary nationalities = new Dictionary();
+    private final Map<GroupKey, Integer> groupsByKey = new HashMap<>();
+    private final List<Group> groups = new ArrayList<>();
+    private final Map<Long, Long> entries = new HashMap<>();
+
+    public void put(Long id, String genre, BigDecimal price, Integer publicationYear, String nationality) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+            String decade = publicationYear == null ? null : Math.floorDiv(publicationYear, 10) * 10 + "s";
+            int group = group(genres.slot(genre), decades.slot(decade), nationalities.slot(nationality));
+            addEntry(id, group, cents(price));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setNationality(Collection<Long> ids, String nationality) {
+        lock.writeLock().lock();
+        try {
+            int slot = nationalities.slot(nationality);
+            for (Long id : ids) {
+                Long entry = entries.get(id);
+                if (entry == null) {
+                    continue;
+                }
+                Group current = groups.get(groupOf(entry));
+                removeEntry(id);
+                addEntry(id, group(current.genre, current.decade, slot), priceOf(entry));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            genres.clear();
+            decades.clear();
+            nationalities.clear();
+            groupsByKey.clear();
+            groups.clear();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the whole catalog. A null genre or price bound means no filter.
+     */
+    public BookFacetsDTO count(String genre, BigDecimal minPrice, BigDecimal maxPrice) {
+        lock.readLock().lock();
+        try {
+            Counts counts = new Counts(genre, minPrice, maxPrice);
+            for (Group group : groups) {
+                if (group.size() > 0) {
+                    counts.add(group);
+                }
+            }
+            return counts.toDTO();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts only the given books, e.g. the matches of a title search.
+     */
+    public BookFacetsDTO count(Collection<Long> ids, String genre, BigDecimal minPrice, BigDecimal maxPrice) {
+        lock.readLock().lock();
+        try {
+            Counts counts = new Counts(genre, minPrice, maxPrice);
+            for (Long id : ids) {
+                Long entry = entries.get(id);
+                if (entry != null) {
+                    counts.add(groups.get(groupOf(entry)), priceOf(entry));
+                }
+            }
+            return counts.toDTO();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int group(int genre, int decade, int nationality) {
+        return groupsByKey.computeIfAbsent(new GroupKey(genre, decade, nationality), key -> {
+            groups.add(new Group(genre, decade, nationality));
+            return groups.size() - 1;
+        });
+    }
+
+    private void addEntry(Long id, int group, int price) {
+        groups.get(group).add(price);
+        entries.put(id, ((long) group << 32) | (price & 0xFFFFFFFFL));
+    }
+
+    private void removeEntry(Long id) {
+        Long entry = entries.remove(id);
+        if (entry != null) {
+            groups.get(groupOf(entry)).remove(priceOf(entry));
+        }
+    }
+
+    private static int groupOf(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    private static int priceOf(long entry) {
+        return (int) entry;
+    }
+
+    private static int cents(BigDecimal price) {
+        return price == null ? NO_PRICE : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    private static int priceRange(int price) {
+        int range = 0;
+        while (range < PRICE_RANGE_BOUNDS.length && price >= PRICE_RANGE_BOUNDS[range]) {
+            range++;
+        }
+        return range;
+    }
+
+    private static Map<String, Long> byCountDescending(long[] counts, Dictionary names) {
+        return sorted(counts, names, (a, b) -> counts[a] != counts[b] ? Long.compare(counts[b], counts[a])
+                : names.value(a).compareTo(names.value(b)));
+    }
+
+    private static Map<String, Long> byName(long[] counts, Dictionary names) {
+        return sorted(counts, names, Comparator.comparing(names::value));
+    }
+
+    private static Map<String, Long> sorted(long[] counts, Dictionary names, Comparator<Integer> order) {
+        List<Integer> slots = new ArrayList<>();
+        for (int slot = Dictionary.NO_VALUE + 1; slot < counts.length; slot++) {
+            if (counts[slot] > 0) {
+                slots.add(slot);
+            }
+        }
+        slots.sort(order);
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int slot : slots) {
+            result.put(names.value(slot), counts[slot]);
+        }
+        return result;
+    }
+
+    private record GroupKey(int genre, int decade, int nationality) {
+    }
+
+    private static final class Group {
+
+        final int genre;
+        final int decade;
+        final int nationality;
+        final long[] ranges = new long[PRICE_RANGE_LABELS.length];
+        int[] prices = new int[4];
+        int priced;
+        int unpriced;
+
+        Group(int genre, int decade, int nationality) {
+            this.genre = genre;
+            this.decade = decade;
+            this.nationality = nationality;
+        }
+
+        int size() {
+            return priced + unpriced;
+        }
+
+        void add(int price) {
+            if (price == NO_PRICE) {
+                unpriced++;
+                return;
+            }
+            if (priced == prices.length) {
+                prices = Arrays.copyOf(prices, priced * 2);
+            }
+            int position = lowerBound(price);
+            System.arraycopy(prices, position, prices, position + 1, priced - position);
+            prices[position] = price;
+            priced++;
+            ranges[priceRange(price)]++;
+        }
+
+        void remove(int price) {
+            if (price == NO_PRICE) {
+                unpriced--;
+                return;
+            }
+            int position = lowerBound(price);
+            System.arraycopy(prices, position + 1, prices, position, priced - position - 1);
+            priced--;
+            ranges[priceRange(price)]--;
+        }
+
+        int countBetween(long min, long max) {
+            return lowerBound(max + 1) - lowerBound(min);
+        }
+
+        private int lowerBound(long price) {
+            int low = 0;
+            int high = priced;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (prices[middle] < price) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final class Counts {
+
+        final int genre;
+        final boolean priceFiltered;
+        final long min;
+        final long max;
+        final long[] genreCounts = new long[genres.size()];
+        final long[] decadeCounts = new long[decades.size()];
+        final long[] nationalityCounts = new long[nationalities.size()];
+        final long[] rangeCounts = new long[PRICE_RANGE_LABELS.length];
+        long total;
+
+        Counts(String genre, BigDecimal minPrice, BigDecimal maxPrice) {
+            this.genre = genre == null ? -1 : genres.find(genre);
+            this.priceFiltered = minPrice != null || maxPrice != null;
+            this.min = minPrice == null ? Long.MIN_VALUE
+                    : minPrice.movePointRight(2).setScale(0, RoundingMode.CEILING).longValue();
+            this.max = maxPrice == null ? Long.MAX_VALUE - 1
+                    : maxPrice.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+        }
+
+        boolean genreMatches(Group group) {
+            return genre == -1 || group.genre == genre;
+        }
+
+        void add(Group group) {
+            long inRange = priceFiltered ? group.countBetween(min, max) : group.size();
+            genreCounts[group.genre] += inRange;
+            if (genreMatches(group)) {
+                for (int range = 0; range < rangeCounts.length; range++) {
+                    rangeCounts[range] += group.ranges[range];
+                }
+                addMatches(group, inRange);
+            }
+        }
+
+        void add(Group group, int price) {
+            boolean inRange = !priceFiltered || (price != NO_PRICE && price >= min && price <= max);
+            if (inRange) {
+                genreCounts[group.genre]++;
+            }
+            if (genreMatches(group)) {
+                if (price != NO_PRICE) {
+                    rangeCounts[priceRange(price)]++;
+                }
+                if (inRange) {
+                    addMatches(group, 1);
+                }
+            }
+        }
+
+        private void addMatches(Group group, long count) {
+            if (count == 0) {
+                return;
+            }
+            total += count;
+            decadeCounts[group.decade] += count;
+            nationalityCounts[group.nationality] += count;
+        }
+
+        BookFacetsDTO toDTO() {
+            Map<String, Long> priceRanges = new LinkedHashMap<>();
+            for (int range = 0; range < rangeCounts.length; range++) {
+                priceRanges.put(PRICE_RANGE_LABELS[range], rangeCounts[range]);
+            }
+            return new BookFacetsDTO(total, byCountDescending(genreCounts, genres), priceRanges,
+                    byName(decadeCounts, decades), byCountDescending(nationalityCounts, nationalities));
+        }
+    }
+}
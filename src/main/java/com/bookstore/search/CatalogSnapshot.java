@@ -0,0 +1,583 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.BookDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Thread-safe read-only copy of the catalog for the hot listings, stored
+ * column by column: prices in cents, years, page counts and timestamps in
+ * primitive arrays, genres, publishers and authors as dictionary slots, so a
+ * book costs a few array cells instead of an entity with boxed fields.
+ * <p>
+ * Filters scan the primitive columns and collect row numbers, not objects;
+ * only the books that end up in the answer are turned into DTOs. A page is picked with a bounded
+ * heap of row numbers, so sorting a large match costs O(n log k) and no
+ * per-row objects. Results follow the database's rules: inclusive price
+ * bounds, books without a price never match a price filter, nulls sort first
+ * ascending and last descending, ties are broken by id.
+ * <p>
+ * Given a fork-join pool, scans over at least the parallel threshold are split
+ * into segments: each segment filters its rows and keeps its own best rows for
+ * the page, and the segments' results are merged for the requested sort.
+ */
+public class CatalogSnapshot {
+
+    private static final long NO_LONG = Long.MIN_VALUE;
+    private static final int NO_INT = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int SEGMENTS_PER_THREAD = 4;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Dictionary genres = new Dictionary();
+    private final Dictionary publishers = new Dictionary();
+    private final Dictionary authorNames = new Dictionary();
+    private final Map<Long, Integer> rows = new HashMap<>();
+
+    // One cell per book; rows [0, size) are live and a removed row is refilled with the last one
+    private int size;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private String[] isbns = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private int[] publicationYears = new int[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private int[] genreSlots = new int[INITIAL_CAPACITY];
+    private int[] pageCounts = new int[INITIAL_CAPACITY];
+    private int[] publisherSlots = new int[INITIAL_CAPACITY];
+    private long[] createdAts = new long[INITIAL_CAPACITY];
+    private long[] updatedAts = new long[INITIAL_CAPACITY];
+    private long[] authorIds = new long[INITIAL_CAPACITY];
+    private int[] authorSlots = new int[INITIAL_CAPACITY];
+
+    // Current name of each author, shared by all their books
+    private final Map<Long, Integer> authors = new HashMap<>();
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public CatalogSnapshot() {
+        this(null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param pool              evaluates large scans in parallel segments, or null to scan on the caller's thread only
+     * @param parallelThreshold the fewest rows a scan must cover to be split
+     */
+    public CatalogSnapshot(ForkJoinPool pool, int parallelThreshold) {
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Adds or replaces a book. A null author name keeps the name already
+     * known for the book's author.
+     */
+    public void put(BookDTO book) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = rows.get(book.getId());
+            int row;
+            if (existing == null) {
+                ensureCapacity(size + 1);
+                row = size++;
+                rows.put(book.getId(), row);
+            } else {
+                row = existing;
+            }
+            ids[row] = book.getId();
+            titles[row] = book.getTitle();
+            isbns[row] = book.getIsbn();
+            descriptions[row] = book.getDescription();
+            publicationYears[row] = book.getPublicationYear() == null ? NO_INT : book.getPublicationYear();
+            prices[row] = book.getPrice() == null ? NO_LONG
+                    : book.getPrice().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+            genreSlots[row] = genres.slot(book.getGenre());
+            pageCounts[row] = book.getPageCount() == null ? NO_INT : book.getPageCount();
+            publisherSlots[row] = publishers.slot(book.getPublisher());
+            createdAts[row] = micros(book.getCreatedAt());
+            updatedAts[row] = micros(book.getUpdatedAt());
+            authorIds[row] = book.getAuthorId() == null ? NO_LONG : book.getAuthorId();
+            authorSlots[row] = authorSlot(book.getAuthorId(), book.getAuthorName());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rows.remove(id);
+            if (row == null) {
+                return;
+            }
+            int last = --size;
+            if (row != last) {
+                move(last, row);
+                rows.put(ids[row], row);
+            }
+            titles[last] = null;
+            isbns[last] = null;
+            descriptions[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void renameAuthor(Long authorId, String name) {
+        lock.writeLock().lock();
+        try {
+            if (authors.containsKey(authorId)) {
+                int slot = authorNames.slot(name);
+                authors.put(authorId, slot);
+                for (int row = 0; row < size; row++) {
+                    if (authorIds[row] == authorId) {
+                        authorSlots[row] = slot;
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(titles, 0, size, null);
+            Arrays.fill(isbns, 0, size, null);
+            Arrays.fill(descriptions, 0, size, null);
+            size = 0;
+            rows.clear();
+            authors.clear();
+            genres.clear();
+            publishers.clear();
+            authorNames.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<BookDTO> findByGenre(String genre) {
+        lock.readLock().lock();
+        try {
+            int slot = genres.find(genre);
+            return toDtos(scan(null, size, (candidates, from, to) -> {
+                Rows matched = new Rows();
+                for (int row = from; row < to; row++) {
+                    if (genreSlots[row] == slot) {
+                        matched.add(row);
+                    }
+                }
+                return matched;
+            }, Rows::append));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<BookDTO> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        lock.readLock().lock();
+        try {
+            long min = lowerCents(minPrice);
+            long max = upperCents(maxPrice);
+            return toDtos(scan(null, size, (candidates, from, to) -> {
+                Rows matched = new Rows();
+                for (int row = from; row < to; row++) {
+                    long price = prices[row];
+                    if (price != NO_LONG && price >= min && price <= max) {
+                        matched.add(row);
+                    }
+                }
+                return matched;
+            }, Rows::append));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of the books matching every filter that is set, or empty when
+     * the sort uses a property or option the snapshot cannot order by.
+     *
+     * @param bookIds restricts the match to these books, or null for all books
+     */
+    public Optional<Page<BookDTO>> find(Collection<Long> bookIds, String genre, BigDecimal minPrice,
+                                        BigDecimal maxPrice, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            RowOrder order = order(pageable.getSort());
+            if (order == null) {
+                return Optional.empty();
+            }
+            int genreSlot = genre == null ? -1 : genres.find(genre);
+            boolean priced = minPrice != null || maxPrice != null;
+            long min = lowerCents(minPrice);
+            long max = upperCents(maxPrice);
+
+            int[] candidates = null;
+            int count = size;
+            if (bookIds != null) {
+                candidates = new int[bookIds.size()];
+                count = 0;
+                for (Long id : bookIds) {
+                    Integer row = rows.get(id);
+                    if (row != null) {
+                        candidates[count++] = row;
+                    }
+                }
+            }
+
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            int k = pageable.isPaged() ? (int) Math.min(count, offset + pageable.getPageSize()) : count;
+            TopRows top = scan(candidates, count, (given, from, to) -> {
+                TopRows segment = new TopRows(k, order);
+                for (int i = from; i < to; i++) {
+                    int row = given == null ? i : given[i];
+                    if (matches(row, genre, genreSlot, priced, min, max)) {
+                        segment.offer(row);
+                    }
+                }
+                return segment;
+            }, TopRows::merge);
+
+            if (offset >= top.matches) {
+                return Optional.of(new PageImpl<>(List.of(), pageable, top.matches));
+            }
+            int[] first = top.sorted();
+            List<BookDTO> books = new ArrayList<>(first.length - (int) offset);
+            for (int i = (int) offset; i < first.length; i++) {
+                books.add(toDto(first[i]));
+            }
+            return Optional.of(new PageImpl<>(books, pageable, top.matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(int row, String genre, int genreSlot, boolean priced, long min, long max) {
+        if (genre != null && genreSlots[row] != genreSlot) {
+            return false;
+        }
+        if (priced) {
+            long price = prices[row];
+            return price != NO_LONG && price >= min && price <= max;
+        }
+        return true;
+    }
+
+    /**
+     * Runs a segment scan over the first {@code count} candidates (rows
+     * {@code [0, count)} when {@code candidates} is null). Large scans are cut
+     * into segments evaluated in the pool and merged in row order; small ones
+     * stay on the caller's thread, where forking would cost more than it saves.
+     * Called under the read lock, which the caller keeps until the merge is done.
+     */
+    private <R> R scan(int[] candidates, int count, Segment<R> segment, BinaryOperator<R> merge) {
+        if (pool == null || count < parallelThreshold) {
+            return segment.scan(candidates, 0, count);
+        }
+        int segments = pool.getParallelism() * SEGMENTS_PER_THREAD;
+        int length = (count + segments - 1) / segments;
+        return pool.submit(() -> IntStream.range(0, segments).parallel()
+                .mapToObj(i -> segment.scan(candidates, Math.min(count, i * length), Math.min(count, (i + 1) * length)))
+                .reduce(merge)
+                .orElseThrow()).join();
+    }
+
+    /**
+     * Compares rows by the sort's properties, then by id. Null when the sort
+     * cannot be reproduced here, so the caller falls back to the database.
+     */
+    private RowOrder order(Sort sort) {
+        RowOrder order = (a, b) -> Long.compare(ids[a], ids[b]);
+        List<Sort.Order> orders = sort.toList();
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            Sort.Order property = orders.get(i);
+            RowOrder column = column(property.getProperty());
+            if (column == null || property.isIgnoreCase()
+                    || property.getNullHandling() != Sort.NullHandling.NATIVE) {
+                return null;
+            }
+            RowOrder directed = property.isAscending() ? column : (a, b) -> column.compare(b, a);
+            RowOrder next = order;
+            order = (a, b) -> {
+                int result = directed.compare(a, b);
+                return result != 0 ? result : next.compare(a, b);
+            };
+        }
+        return order;
+    }
+
+    // Missing numbers are stored as the smallest value, so they sort first like the database's nulls
+    private RowOrder column(String property) {
+        return switch (property) {
+            case "id" -> (a, b) -> Long.compare(ids[a], ids[b]);
+            case "title" -> (a, b) -> compare(titles[a], titles[b]);
+            case "isbn" -> (a, b) -> compare(isbns[a], isbns[b]);
+            case "publicationYear" -> (a, b) -> Integer.compare(publicationYears[a], publicationYears[b]);
+            case "price" -> (a, b) -> Long.compare(prices[a], prices[b]);
+            case "genre" -> (a, b) -> compare(genres.value(genreSlots[a]), genres.value(genreSlots[b]));
+            case "pageCount" -> (a, b) -> Integer.compare(pageCounts[a], pageCounts[b]);
+            case "publisher" -> (a, b) -> compare(publishers.value(publisherSlots[a]),
+                    publishers.value(publisherSlots[b]));
+            case "createdAt" -> (a, b) -> Long.compare(createdAts[a], createdAts[b]);
+            case "updatedAt" -> (a, b) -> Long.compare(updatedAts[a], updatedAts[b]);
+            default -> null;
+        };
+    }
+
+    private static int compare(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private List<BookDTO> toDtos(Rows matched) {
+        BookDTO[] books = new BookDTO[matched.size];
+        scan(matched.rows, matched.size, (given, from, to) -> {
+            for (int i = from; i < to; i++) {
+                books[i] = toDto(given[i]);
+            }
+            return books;
+        }, (left, right) -> left);
+        return new ArrayList<>(Arrays.asList(books));
+    }
+
+    private BookDTO toDto(int row) {
+        return new BookDTO(ids[row], titles[row], isbns[row], descriptions[row],
+                publicationYears[row] == NO_INT ? null : publicationYears[row],
+                prices[row] == NO_LONG ? null : BigDecimal.valueOf(prices[row], 2),
+                genres.value(genreSlots[row]),
+                pageCounts[row] == NO_INT ? null : pageCounts[row],
+                publishers.value(publisherSlots[row]),
+                dateTime(createdAts[row]), dateTime(updatedAts[row]),
+                authorIds[row] == NO_LONG ? null : authorIds[row],
+                authorNames.value(authorSlots[row]));
+    }
+
+    private int authorSlot(Long authorId, String name) {
+        if (authorId == null) {
+            return Dictionary.NO_VALUE;
+        }
+        if (name != null) {
+            authors.put(authorId, authorNames.slot(name));
+        }
+        return authors.getOrDefault(authorId, Dictionary.NO_VALUE);
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        titles[to] = titles[from];
+        isbns[to] = isbns[from];
+        descriptions[to] = descriptions[from];
+        publicationYears[to] = publicationYears[from];
+        prices[to] = prices[from];
+        genreSlots[to] = genreSlots[from];
+        pageCounts[to] = pageCounts[from];
+        publisherSlots[to] = publisherSlots[from];
+        createdAts[to] = createdAts[from];
+        updatedAts[to] = updatedAts[from];
+        authorIds[to] = authorIds[from];
+        authorSlots[to] = authorSlots[from];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        titles = Arrays.copyOf(titles, grown);
+        isbns = Arrays.copyOf(isbns, grown);
+        descriptions = Arrays.copyOf(descriptions, grown);
+        publicationYears = Arrays.copyOf(publicationYears, grown);
+        prices = Arrays.copyOf(prices, grown);
+        genreSlots = Arrays.copyOf(genreSlots, grown);
+        pageCounts = Arrays.copyOf(pageCounts, grown);
+        publisherSlots = Arrays.copyOf(publisherSlots, grown);
+        createdAts = Arrays.copyOf(createdAts, grown);
+        updatedAts = Arrays.copyOf(updatedAts, grown);
+        authorIds = Arrays.copyOf(authorIds, grown);
+        authorSlots = Arrays.copyOf(authorSlots, grown);
+    }
+
+    private static long lowerCents(BigDecimal price) {
+        return price == null ? Long.MIN_VALUE + 1 : price.movePointRight(2).setScale(0, RoundingMode.CEILING).longValue();
+    }
+
+    private static long upperCents(BigDecimal price) {
+        return price == null ? Long.MAX_VALUE : price.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+    }
+
+    private static long micros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NO_LONG;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime dateTime(long micros) {
+        if (micros == NO_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    @FunctionalInterface
+    private interface RowOrder {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Scans candidates {@code [from, to)}; {@code candidates} is null when the
+     * candidates are the rows themselves.
+     */
+    @FunctionalInterface
+    private interface Segment<R> {
+        R scan(int[] candidates, int from, int to);
+    }
+
+    /**
+     * Matching row numbers in row order.
+     */
+    private static final class Rows {
+
+        private int[] rows = new int[16];
+        private int size;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        Rows append(Rows next) {
+            if (size + next.size > rows.length) {
+                rows = Arrays.copyOf(rows, size + next.size);
+            }
+            System.arraycopy(next.rows, 0, rows, size, next.size);
+            size += next.size;
+            return this;
+        }
+    }
+
+    /**
+     * The first {@code limit} matching rows in sort order and the number of
+     * matches: a max-heap keeps the best rows seen so far, so its top is the
+     * row the next better match pushes out.
+     */
+    private static final class TopRows {
+
+        private final RowOrder order;
+        private final int limit;
+        private int[] heap = new int[16];
+        private int size;
+        private int matches;
+
+        TopRows(int limit, RowOrder order) {
+            this.limit = limit;
+            this.order = order;
+        }
+
+        void offer(int row) {
+            matches++;
+            if (size < limit) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, Math.min(limit, size * 2));
+                }
+                heap[size] = row;
+                siftUp(size++);
+            } else if (limit > 0 && order.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(size);
+            }
+        }
+
+        TopRows merge(TopRows other) {
+            int matched = matches + other.matches;
+            for (int i = 0; i < other.size; i++) {
+                offer(other.heap[i]);
+            }
+            matches = matched;
+            return this;
+        }
+
+        /**
+         * Empties the heap from the back, which leaves the rows in sort order.
+         */
+        int[] sorted() {
+            for (int end = size - 1; end > 0; end--) {
+                int top = heap[0];
+                heap[0] = heap[end];
+                heap[end] = top;
+                siftDown(end);
+            }
+            return Arrays.copyOf(heap, size);
+        }
+
+        private void siftUp(int index) {
+            int row = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (order.compare(heap[parent], row) >= 0) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = row;
+        }
+
+        private void siftDown(int heapSize) {
+            int row = heap[0];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && order.compare(heap[child + 1], heap[child]) > 0) {
+                    child++;
+                }
+                if (order.compare(heap[child], row) <= 0) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = row;
+        }
+    }
+}
@@ -0,0 +1,591 @@
+package com.bookstore.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe in-memory completion index: returns the highest weighted
+ * entries with a word starting with the typed prefix, folded like
+ * {@link TextIndex#normalize}.
+ * <p>
+ * Every word start of every entry is a position in one sorted array, so the
+ * positions completing a prefix form a contiguous range found by binary
+ * search, and a segment tree over the array picks the best positions of that
+ * range without visiting the rest. A position is two ints pointing into the
+ * entry's text, where a trie would need an object per character.
+ * <p>
+ * Writes go to a small sorted buffer that queries read alongside the array.
+ * Updated and removed entries stay behind as dead positions. Both are merged
+ * into a new array once the buffer or the dead positions grow past a fraction
+ * of the array. The merge also enforces the memory budget: if the estimated
+ * size is over it, the lowest weighted entries are dropped.
+ */
+public class Completions {
+
+    private static final int MAX_WORDS = 16;
+    private static final int MIN_BUFFER = 2048;
+    private static final int NONE = -1;
+    private static final long MAX_WEIGHT = (1L << 47) - 1;
+
+    // Rough heap cost of an entry (its slots, map entry and boxed key), a string and a word position
+    private static final int ENTRY_BYTES = 112;
+    private static final int STRING_BYTES = 56;
+    private static final int WORD_BYTES = 16;
+
+    private final long memoryBudget;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> entriesByKey = new HashMap<>();
+
+    private long[] keys = new long[16];
+    private String[] labels = new String[16];
+    private String[] texts = new String[16];
+    private long[] weights = new long[16];
+    private int[] wordCounts = new int[16];
+    private boolean[] dead = new boolean[16];
+    private int entryCount;
+    private long liveBytes;
+    private long dropped;
+
+    // Word starts: the entry and the offset of the word in its normalized text
+    private int[] mainEntries = new int[0];
+    private int[] mainOffsets = new int[0];
+    private int[] best = new int[0];
+    private int mainSize;
+    private int[] bufferEntries = new int[16];
+    private int[] bufferOffsets = new int[16];
+    private int bufferSize;
+    private int deadWords;
+
+    public Completions(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    public record Completion(long key, String label, long weight) {
+    }
+
+    /**
+     * Replaces the whole content, sorting all word starts at once rather than
+     * inserting them one by one.
+     */
+    public void replaceAll(Collection<Completion> completions) {
+        lock.writeLock().lock();
+        try {
+            reset();
+            for (Completion completion : completions) {
+                String text = TextIndex.normalize(completion.label());
+                if (text.isEmpty()) {
+                    continue;
+                }
+                kill(entriesByKey.getOrDefault(completion.key(), NONE));
+                int entry = addEntry(completion.key(), completion.label(), text, completion.weight());
+                for (int offset : wordStarts(text)) {
+                    ensureBufferCapacity(bufferSize + 1);
+                    bufferEntries[bufferSize] = entry;
+                    bufferOffsets[bufferSize++] = offset;
+                }
+            }
+            Integer[] order = new Integer[bufferSize];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compareWords(bufferEntries[a], bufferOffsets[a],
+                    bufferEntries[b], bufferOffsets[b]));
+            int[] sortedEntries = new int[bufferEntries.length];
+            int[] sortedOffsets = new int[bufferOffsets.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedEntries[i] = bufferEntries[order[i]];
+                sortedOffsets[i] = bufferOffsets[order[i]];
+            }
+            bufferEntries = sortedEntries;
+            bufferOffsets = sortedOffsets;
+            merge();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(long key, String label, long weight) {
+        String text = TextIndex.normalize(label);
+        lock.writeLock().lock();
+        try {
+            kill(entriesByKey.getOrDefault(key, NONE));
+            if (!text.isEmpty()) {
+                int entry = addEntry(key, label, text, weight);
+                for (int offset : wordStarts(text)) {
+                    insertIntoBuffer(entry, offset);
+                }
+            }
+            mergeIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the label of a key and keeps its weight; an unknown key is added
+     * with weight 0.
+     */
+    public void relabel(long key, String label) {
+        lock.writeLock().lock();
+        try {
+            Integer entry = entriesByKey.get(key);
+            put(key, label, entry == null ? 0 : weights[entry]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the weight of a key, if it is indexed.
+     */
+    public void adjustWeight(long key, long delta) {
+        lock.writeLock().lock();
+        try {
+            Integer entry = entriesByKey.get(key);
+            if (entry != null) {
+                put(key, labels[entry], weights[entry] + delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            kill(entriesByKey.getOrDefault(key, NONE));
+            mergeIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entriesByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entries dropped so far to stay within the memory budget.
+     */
+    public long dropped() {
+        lock.readLock().lock();
+        try {
+            return dropped;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries with a word starting with the prefix.
+     * Higher weights come first, then entries whose text starts with the
+     * prefix, then shorter texts.
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        String normalized = TextIndex.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Long> scores = new HashMap<>();
+            collectFromMain(lowerBound(mainEntries, mainOffsets, mainSize, normalized),
+                    upperBound(mainEntries, mainOffsets, mainSize, normalized), limit, scores);
+            collectFromBuffer(lowerBound(bufferEntries, bufferOffsets, bufferSize, normalized),
+                    upperBound(bufferEntries, bufferOffsets, bufferSize, normalized), limit, scores);
+            List<Integer> entries = new ArrayList<>(scores.keySet());
+            entries.sort(Comparator.<Integer>comparingLong(scores::get).reversed()
+                    .thenComparing(entry -> texts[entry])
+                    .thenComparingLong(entry -> keys[entry]));
+            List<Completion> result = new ArrayList<>(Math.min(limit, entries.size()));
+            for (int entry : entries.subList(0, Math.min(limit, entries.size()))) {
+                result.add(new Completion(keys[entry], labels[entry], weights[entry]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pops the best position of a range and splits the range around it, so the
+     * best {@code limit} live entries come out after about that many tree
+     * queries. Dead positions and further words of an entry already taken are
+     * skipped.
+     */
+    private void collectFromMain(int from, int to, int limit, Map<Integer, Long> scores) {
+        if (from >= to) {
+            return;
+        }
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compareMain(a[2], b[2]));
+        ranges.add(new int[]{from, to, bestIn(from, to)});
+        int found = 0;
+        while (found < limit && !ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int position = range[2];
+            int entry = mainEntries[position];
+            if (!dead[entry] && !scores.containsKey(entry)) {
+                scores.put(entry, score(entry, mainOffsets[position]));
+                found++;
+            }
+            if (range[0] < position) {
+                ranges.add(new int[]{range[0], position, bestIn(range[0], position)});
+            }
+            if (position + 1 < range[1]) {
+                ranges.add(new int[]{position + 1, range[1], bestIn(position + 1, range[1])});
+            }
+        }
+    }
+
+    /**
+     * The buffer has no tree, so its range is scanned, keeping the best
+     * {@code limit} entries in a small list ordered by score.
+     */
+    private void collectFromBuffer(int from, int to, int limit, Map<Integer, Long> scores) {
+        int[] top = new int[limit];
+        long[] topScores = new long[limit];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int entry = bufferEntries[i];
+            long score = dead[entry] ? -1 : score(entry, bufferOffsets[i]);
+            if (score < 0 || count == limit && score <= topScores[count - 1]) {
+                continue;
+            }
+            int listed = 0;
+            while (listed < count && top[listed] != entry) {
+                listed++;
+            }
+            if (listed < count) {
+                if (score <= topScores[listed]) {
+                    continue;
+                }
+                System.arraycopy(top, listed + 1, top, listed, count - listed - 1);
+                System.arraycopy(topScores, listed + 1, topScores, listed, count - listed - 1);
+                count--;
+            }
+            int at = count == limit ? limit - 1 : count++;
+            while (at > 0 && topScores[at - 1] < score) {
+                top[at] = top[at - 1];
+                topScores[at] = topScores[at - 1];
+                at--;
+            }
+            top[at] = entry;
+            topScores[at] = score;
+        }
+        for (int i = 0; i < count; i++) {
+            scores.put(top[i], topScores[i]);
+        }
+    }
+
+    private int bestIn(int from, int to) {
+        int result = NONE;
+        for (int lo = from + mainSize, hi = to + mainSize; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                result = better(result, best[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                result = better(result, best[--hi]);
+            }
+        }
+        return result;
+    }
+
+    private int better(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        return compareMain(a, b) <= 0 ? a : b;
+    }
+
+    private int compareMain(int a, int b) {
+        int byScore = Long.compare(score(mainEntries[b], mainOffsets[b]), score(mainEntries[a], mainOffsets[a]));
+        return byScore != 0 ? byScore : Integer.compare(a, b);
+    }
+
+    private long score(int entry, int offset) {
+        long weight = Math.min(Math.max(weights[entry], 0), MAX_WEIGHT);
+        return weight << 16 | (offset == 0 ? 1 << 15 : 0) | (0x7fff - Math.min(texts[entry].length(), 0x7fff));
+    }
+
+    private int lowerBound(int[] entries, int[] offsets, int size, String prefix) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(entries[mid], offsets[mid], prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int upperBound(int[] entries, int[] offsets, int size, String prefix) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(entries[mid], offsets[mid], prefix) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Compares the word at {@code offset} with the prefix; 0 when it starts
+     * with it.
+     */
+    private int comparePrefix(int entry, int offset, String prefix) {
+        String text = texts[entry];
+        int length = Math.min(text.length() - offset, prefix.length());
+        for (int i = 0; i < length; i++) {
+            int difference = text.charAt(offset + i) - prefix.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return text.length() - offset < prefix.length() ? -1 : 0;
+    }
+
+    private int compareWords(int entryA, int offsetA, int entryB, int offsetB) {
+        String a = texts[entryA];
+        String b = texts[entryB];
+        int length = Math.min(a.length() - offsetA, b.length() - offsetB);
+        for (int i = 0; i < length; i++) {
+            int difference = a.charAt(offsetA + i) - b.charAt(offsetB + i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return (a.length() - offsetA) - (b.length() - offsetB);
+    }
+
+    private static int[] wordStarts(String text) {
+        int[] starts = new int[MAX_WORDS];
+        int count = 0;
+        for (int i = 0; i < text.length() && count < MAX_WORDS; i++) {
+            if (i == 0 || text.charAt(i - 1) == ' ') {
+                starts[count++] = i;
+            }
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private int addEntry(long key, String label, String text, long weight) {
+        if (entryCount == keys.length) {
+            int length = entryCount * 2;
+            keys = Arrays.copyOf(keys, length);
+            labels = Arrays.copyOf(labels, length);
+            texts = Arrays.copyOf(texts, length);
+            weights = Arrays.copyOf(weights, length);
+            wordCounts = Arrays.copyOf(wordCounts, length);
+            dead = Arrays.copyOf(dead, length);
+        }
+        int entry = entryCount++;
+        keys[entry] = key;
+        labels[entry] = label;
+        texts[entry] = text;
+        weights[entry] = weight;
+        wordCounts[entry] = wordStarts(text).length;
+        dead[entry] = false;
+        entriesByKey.put(key, entry);
+        liveBytes += bytes(entry);
+        return entry;
+    }
+
+    private long bytes(int entry) {
+        return ENTRY_BYTES + 2L * STRING_BYTES + labels[entry].length() + texts[entry].length()
+                + (long) WORD_BYTES * wordCounts[entry];
+    }
+
+    private void kill(int entry) {
+        if (entry == NONE || dead[entry]) {
+            return;
+        }
+        dead[entry] = true;
+        entriesByKey.remove(keys[entry]);
+        deadWords += wordCounts[entry];
+        liveBytes -= bytes(entry);
+    }
+
+    private void insertIntoBuffer(int entry, int offset) {
+        int lo = 0;
+        int hi = bufferSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareWords(bufferEntries[mid], bufferOffsets[mid], entry, offset) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        ensureBufferCapacity(bufferSize + 1);
+        System.arraycopy(bufferEntries, lo, bufferEntries, lo + 1, bufferSize - lo);
+        System.arraycopy(bufferOffsets, lo, bufferOffsets, lo + 1, bufferSize - lo);
+        bufferEntries[lo] = entry;
+        bufferOffsets[lo] = offset;
+        bufferSize++;
+    }
+
+    private void ensureBufferCapacity(int capacity) {
+        if (capacity > bufferEntries.length) {
+            int length = Math.max(capacity, bufferEntries.length * 2);
+            bufferEntries = Arrays.copyOf(bufferEntries, length);
+            bufferOffsets = Arrays.copyOf(bufferOffsets, length);
+        }
+    }
+
+    private void mergeIfNeeded() {
+        if (bufferSize > Math.max(MIN_BUFFER, mainSize / 32)
+                || deadWords > Math.max(MIN_BUFFER, (mainSize + bufferSize) / 4)) {
+            merge();
+        }
+    }
+
+    /**
+     * Drops entries over the memory budget, merges the live positions of the
+     * array and the buffer into a new array and renumbers the live entries.
+     */
+    private void merge() {
+        enforceBudget();
+        int[] entries = new int[mainSize + bufferSize];
+        int[] offsets = new int[entries.length];
+        int size = 0;
+        int m = 0;
+        int b = 0;
+        while (m < mainSize || b < bufferSize) {
+            boolean fromMain = b == bufferSize || m < mainSize
+                    && compareWords(mainEntries[m], mainOffsets[m], bufferEntries[b], bufferOffsets[b]) <= 0;
+            int entry = fromMain ? mainEntries[m] : bufferEntries[b];
+            int offset = fromMain ? mainOffsets[m++] : bufferOffsets[b++];
+            if (!dead[entry]) {
+                entries[size] = entry;
+                offsets[size++] = offset;
+            }
+        }
+
+        int[] renumbered = new int[entryCount];
+        int live = entriesByKey.size();
+        long[] newKeys = new long[Math.max(16, live)];
+        String[] newLabels = new String[newKeys.length];
+        String[] newTexts = new String[newKeys.length];
+        long[] newWeights = new long[newKeys.length];
+        int[] newWordCounts = new int[newKeys.length];
+        int count = 0;
+        for (int entry = 0; entry < entryCount; entry++) {
+            if (!dead[entry]) {
+                renumbered[entry] = count;
+                newKeys[count] = keys[entry];
+                newLabels[count] = labels[entry];
+                newTexts[count] = texts[entry];
+                newWeights[count] = weights[entry];
+                newWordCounts[count] = wordCounts[entry];
+                entriesByKey.put(keys[entry], count);
+                count++;
+            }
+        }
+        keys = newKeys;
+        labels = newLabels;
+        texts = newTexts;
+        weights = newWeights;
+        wordCounts = newWordCounts;
+        dead = new boolean[newKeys.length];
+        entryCount = count;
+
+        for (int i = 0; i < size; i++) {
+            entries[i] = renumbered[entries[i]];
+        }
+        mainEntries = Arrays.copyOf(entries, size);
+        mainOffsets = Arrays.copyOf(offsets, size);
+        mainSize = size;
+        best = new int[2 * size];
+        for (int i = 0; i < size; i++) {
+            best[size + i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            best[i] = better(best[2 * i], best[2 * i + 1]);
+        }
+        bufferEntries = new int[16];
+        bufferOffsets = new int[16];
+        bufferSize = 0;
+        deadWords = 0;
+    }
+
+    private void enforceBudget() {
+        if (liveBytes <= memoryBudget) {
+            return;
+        }
+        List<Integer> live = new ArrayList<>(entriesByKey.values());
+        live.sort(Comparator.<Integer>comparingLong(entry -> weights[entry]).reversed()
+                .thenComparingInt(entry -> entry));
+        long kept = 0;
+        boolean full = false;
+        for (int entry : live) {
+            full = full || kept + bytes(entry) > memoryBudget;
+            if (full) {
+                kill(entry);
+                dropped++;
+            } else {
+                kept += bytes(entry);
+            }
+        }
+    }
+
+    private void reset() {
+        entriesByKey.clear();
+        keys = new long[16];
+        labels = new String[16];
+        texts = new String[16];
+        weights = new long[16];
+        wordCounts = new int[16];
+        dead = new boolean[16];
+        entryCount = 0;
+        liveBytes = 0;
+        mainEntries = new int[0];
+        mainOffsets = new int[0];
+        best = new int[0];
+        mainSize = 0;
+        bufferEntries = new int[16];
+        bufferOffsets = new int[16];
+        bufferSize = 0;
+        deadWords = 0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.bookstore.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns repeated values to small slot numbers; slot 0 stands for a missing
+ * value. Not thread-safe, callers guard it with their own lock.
+ */
+final class Dictionary {
+
+    static final int NO_VALUE = 0;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<String> values = new ArrayList<>(Collections.singletonList(null));
+
+    int slot(String value) {
+        if (value == null) {
+            return NO_VALUE;
+        }
+        return slots.computeIfAbsent(value, key -> {
+            values.add(key);
+            return values.size() - 1;
+        });
+    }
+
+    /**
+     * The slot of a known value, or -2 for a value that was never interned.
+     */
+    int find(String value) {
+        return slots.getOrDefault(value, -2);
+    }
+
+    String value(int slot) {
+        return values.get(slot);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    void clear() {
+        slots.clear();
+        values.subList(1, values.size()).clear();
+    }
+}
@@ -0,0 +1,127 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.SuggestionDTO;
+import com.bookstore.model.Author;
+import com.bookstore.model.Book;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type-ahead completions over book titles and author names. Authors weigh as
+ * many books as they have, so prolific authors come before single titles;
+ * every book weighs one.
+ */
+@Component
+public class SuggestIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestIndex.class);
+
+    private static final String BOOK = "book";
+    private static final String AUTHOR = "author";
+    private static final long BOOK_WEIGHT = 1;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Value("${bookstore.suggest.memory-budget:256MB}")
+    private DataSize memoryBudget;
+
+    private Completions completions;
+
+    @PostConstruct
+    void createCompletions() {
+        completions = new Completions(memoryBudget.toBytes());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<Long, Long> bookCounts = new HashMap<>();
+        for (BookRepository.BookCountView count : bookRepository.countBooksByAuthor()) {
+            bookCounts.put(count.authorId(), count.bookCount());
+        }
+        List<Completions.Completion> entries = new ArrayList<>();
+        for (AuthorRepository.NameView author : authorRepository.findAllNames()) {
+            entries.add(new Completions.Completion(authorKey(author.id()), author.name(),
+                    bookCounts.getOrDefault(author.id(), 0L)));
+        }
+        for (BookRepository.TitleView book : bookRepository.findAllTitles()) {
+            entries.add(new Completions.Completion(bookKey(book.id()), book.title(), BOOK_WEIGHT));
+        }
+        completions.replaceAll(entries);
+        log.info("Indexed {} suggestions in {} ms, about {} KB ({} dropped over the memory budget)",
+                completions.size(), (System.nanoTime() - start) / 1_000_000, completions.estimatedBytes() / 1024,
+                completions.dropped());
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        List<SuggestionDTO> suggestions = new ArrayList<>();
+        for (Completions.Completion completion : completions.complete(prefix, limit)) {
+            boolean author = (completion.key() & 1) == 1;
+            suggestions.add(new SuggestionDTO(author ? AUTHOR : BOOK, completion.key() >>> 1, completion.label()));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Indexes a new book and counts it for its author.
+     */
+    public void add(Book book) {
+        index(book);
+        if (book.getAuthor() != null) {
+            completions.adjustWeight(authorKey(book.getAuthor().getId()), 1);
+        }
+    }
+
+    public void index(Book book) {
+        completions.put(bookKey(book.getId()), book.getTitle(), BOOK_WEIGHT);
+    }
+
+    public void remove(Long bookId, Long authorId) {
+        completions.remove(bookKey(bookId));
+        if (authorId != null) {
+            completions.adjustWeight(authorKey(authorId), -1);
+        }
+    }
+
+    public void index(Author author) {
+        completions.relabel(authorKey(author.getId()), author.getName());
+    }
+
+    /**
+     * Removes an author together with the books deleted along with it.
+     */
+    public void removeAuthor(Long authorId, Collection<Long> bookIds) {
+        completions.remove(authorKey(authorId));
+        bookIds.forEach(bookId -> completions.remove(bookKey(bookId)));
+    }
+
+    private static long bookKey(long bookId) {
+        return bookId << 1;
+    }
+
+    private static long authorKey(long authorId) {
+        return authorId << 1 | 1;
+    }
+}
@@ -0,0 +1,380 @@
+package com.bookstore.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-safe in-memory trigram index answering case- and accent-insensitive
+ * substring queries over short texts such as titles and names.
+ * <p>
+ * Documents get an internal, ever-increasing slot number, so every posting list
+ * stays sorted and can be intersected with a linear merge. Updates and removals
+ * leave a tombstone behind; the slots are compacted once tombstones outnumber
+ * live documents.
+ * <p>
+ * Texts are indexed with a space on either side, so word starts and ends get
+ * trigrams of their own. Substring queries never need those; they let
+ * {@link #searchSimilar} weigh a misspelt word by its intact start and end.
+ */
+public class TextIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private long[] ids = new long[16];
+    private String[] texts = new String[16];
+    private int slotCount;
+    private int tombstones;
+
+    public void put(Long id, String text) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(id);
+            String normalized = normalize(text);
+            int slot = slotCount++;
+            ensureCapacity(slotCount);
+            ids[slot] = id;
+            texts[slot] = normalized;
+            slotsById.put(id, slot);
+            for (long gram : grams(padded(normalized))) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(slot);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotsById.clear();
+            postings.clear();
+            ids = new long[16];
+            texts = new String[16];
+            slotCount = 0;
+            tombstones = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all documents containing the query, best matches first:
+     * exact matches, then prefix matches, then matches at a word boundary, then
+     * any other substring. Ties go to the shorter text, then the lower id.
+     */
+    public List<Long> search(String query) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            return ranked(matches(normalized));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns what {@link #search} returns, followed by the documents that do
+     * not contain the query but share at least {@code minSimilarity} of its
+     * trigrams, so a misspelling such as "tolkein" still finds "Tolkien". Those
+     * come most similar first; ties go to the text closest in length, then the
+     * lower id. Queries shorter than a trigram only match as substrings.
+     * <p>
+     * A document sharing {@code required} of the query's {@code n} trigrams has
+     * at least one of them among the {@code n - required + 1} rarest, so only
+     * those posting lists are merged. The candidates come out in slot order and
+     * are looked up in the commoner lists by seeking forward.
+     */
+    public List<Long> searchSimilar(String query, double minSimilarity) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<Match> matches = matches(normalized);
+            int[] matched = new int[matches.size()];
+            for (int m = 0; m < matched.length; m++) {
+                matched[m] = matches.get(m).slot();
+            }
+            List<Long> result = ranked(matches);
+            if (normalized.length() < GRAM_SIZE) {
+                return result;
+            }
+            Set<Long> grams = grams(padded(normalized));
+            int required = Math.min(grams.size(), Math.max(1, (int) Math.ceil(minSimilarity * grams.size())));
+            Postings[] lists = new Postings[grams.size()];
+            int i = 0;
+            for (long gram : grams) {
+                lists[i++] = postings.getOrDefault(gram, Postings.EMPTY);
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            int scanned = lists.length - required + 1;
+            int[] heads = new int[lists.length];
+            int nextMatched = 0;
+            List<Similar> similar = new ArrayList<>();
+            while (true) {
+                // Merge the rarest lists: the lowest slot at their heads and how many of them hold it
+                int slot = Integer.MAX_VALUE;
+                int shared = 0;
+                for (int l = 0; l < scanned; l++) {
+                    if (heads[l] < lists[l].size) {
+                        int head = lists[l].slots[heads[l]];
+                        if (head < slot) {
+                            slot = head;
+                            shared = 1;
+                        } else if (head == slot) {
+                            shared++;
+                        }
+                    }
+                }
+                if (slot == Integer.MAX_VALUE) {
+                    break;
+                }
+                for (int l = 0; l < scanned; l++) {
+                    if (heads[l] < lists[l].size && lists[l].slots[heads[l]] == slot) {
+                        heads[l]++;
+                    }
+                }
+                for (int l = scanned; l < lists.length && shared + lists.length - l >= required; l++) {
+                    heads[l] = lists[l].seek(heads[l], slot);
+                    if (heads[l] < lists[l].size && lists[l].slots[heads[l]] == slot) {
+                        shared++;
+                    }
+                }
+                // Substring matches are listed already; both run in slot order
+                while (nextMatched < matched.length && matched[nextMatched] < slot) {
+                    nextMatched++;
+                }
+                if (shared >= required && (nextMatched == matched.length || matched[nextMatched] != slot)
+                        && texts[slot] != null) {
+                    similar.add(new Similar(ids[slot], shared, Math.abs(texts[slot].length() - normalized.length())));
+                }
+            }
+            similar.sort(Comparator.comparingInt(Similar::shared).reversed()
+                    .thenComparingInt(Similar::lengthDifference)
+                    .thenComparingLong(Similar::id));
+            for (Similar match : similar) {
+                result.add(match.id());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Documents containing the query, in slot order.
+     */
+    private List<Match> matches(String normalized) {
+        List<Match> matches = new ArrayList<>();
+        if (normalized.length() < GRAM_SIZE) {
+            for (int slot = 0; slot < slotCount; slot++) {
+                collect(slot, normalized, matches);
+            }
+        } else {
+            for (int slot : candidates(normalized)) {
+                collect(slot, normalized, matches);
+            }
+        }
+        return matches;
+    }
+
+    private static List<Long> ranked(List<Match> matches) {
+        List<Match> sorted = new ArrayList<>(matches);
+        sorted.sort(Comparator.comparingInt(Match::rank)
+                .thenComparingInt(Match::length)
+                .thenComparingLong(Match::id));
+        List<Long> result = new ArrayList<>(sorted.size());
+        for (Match match : sorted) {
+            result.add(match.id());
+        }
+        return result;
+    }
+
+    private void collect(int slot, String query, List<Match> matches) {
+        String text = texts[slot];
+        if (text == null) {
+            return;
+        }
+        int position = text.indexOf(query);
+        if (position < 0) {
+            return;
+        }
+        int rank;
+        if (text.length() == query.length()) {
+            rank = 0;
+        } else if (position == 0) {
+            rank = 1;
+        } else if (text.charAt(position - 1) == ' ' || text.contains(" " + query)) {
+            rank = 2;
+        } else {
+            rank = 3;
+        }
+        matches.add(new Match(slot, ids[slot], rank, text.length()));
+    }
+
+    private int[] candidates(String query) {
+        Set<Long> grams = grams(query);
+        Postings[] lists = new Postings[grams.size()];
+        int i = 0;
+        for (long gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists[i++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists[0].slots, lists[0].size);
+        int size = result.length;
+        for (int l = 1; l < lists.length && size > 0; l++) {
+            size = intersect(result, size, lists[l]);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int intersect(int[] target, int size, Postings other) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < size && from < other.size; i++) {
+            from = other.seek(from, target[i]);
+            if (from < other.size && other.slots[from] == target[i]) {
+                target[kept++] = target[i];
+            }
+        }
+        return kept;
+    }
+
+    private static String padded(String normalized) {
+        return " " + normalized + " ";
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private void removeSlot(Long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot != null) {
+            texts[slot] = null;
+            tombstones++;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int newLength = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newLength);
+            texts = Arrays.copyOf(texts, newLength);
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (tombstones < 1024 || tombstones < slotsById.size()) {
+            return;
+        }
+        long[] oldIds = ids;
+        String[] oldTexts = texts;
+        int oldCount = slotCount;
+        slotsById.clear();
+        postings.clear();
+        ids = new long[Math.max(16, oldCount - tombstones)];
+        texts = new String[ids.length];
+        slotCount = 0;
+        tombstones = 0;
+        for (int slot = 0; slot < oldCount; slot++) {
+            if (oldTexts[slot] != null) {
+                int newSlot = slotCount++;
+                ids[newSlot] = oldIds[slot];
+                texts[newSlot] = oldTexts[slot];
+                slotsById.put(oldIds[slot], newSlot);
+                for (long gram : grams(padded(oldTexts[slot]))) {
+                    postings.computeIfAbsent(gram, key -> new Postings()).add(newSlot);
+                }
+            }
+        }
+    }
+
+    private record Match(int slot, long id, int rank, int length) {
+    }
+
+    private record Similar(long id, int shared, int lengthDifference) {
+    }
+
+    private static final class Postings {
+        private static final Postings EMPTY = new Postings();
+
+        private int[] slots = new int[4];
+        private int size;
+
+        /**
+         * Position of the first slot not below {@code slot}, searching from
+         * {@code from} on. Callers look up ascending slots, usually in a longer
+         * list than the one they walk, so it gallops ahead before the binary
+         * search rather than stepping through every slot.
+         */
+        int seek(int from, int slot) {
+            int step = 1;
+            int to = from;
+            while (to < size && slots[to] < slot) {
+                from = to + 1;
+                to += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(slots, from, Math.min(to + 1, size), slot);
+            return found >= 0 ? found : -found - 1;
+        }
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -1,37 +1,194 @@
 package com.bookstore.service;
 
 import com.bookstore.dto.AuthorDTO;
+import com.bookstore.dto.AuthorStatsDTO;
+import com.bookstore.dto.BatchLookupResult;
+import com.bookstore.dto.CursorPage;
 import com.bookstore.model.Author;
 import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.AuthorSpecifications;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.CollectionVersion;
+import com.bookstore.search.AuthorSearchIndex;
+import com.bookstore.search.BookFacetIndex;
+import com.bookstore.search.BookSearchIndex;
+import com.bookstore.search.BookSnapshotIndex;
+import com.bookstore.search.SuggestIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class AuthorService {
 
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("id", "name", "createdAt");
+
     @Autowired
     private AuthorRepository authorRepository;
 
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private AuthorSearchIndex authorSearchIndex;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
+
+    @Autowired
+    private BookSnapshotIndex bookSnapshotIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bookstore.batch.max-size:200}")
+    private int batchMaxSize;
+
+    @Value("${bookstore.reads.coalesce-window:100ms}")
+    private Duration coalesceWindow;
+
+    @Value("${bookstore.reads.max-keys:10000}")
+    private int coalesceMaxKeys;
+
+    private TransactionTemplate readTransaction;
+
+    // Concurrent requests for the same author share one load
+    private SingleFlight<Long, Optional<AuthorDTO>> authorReads;
+
+    @PostConstruct
+    void createReadPaths() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        authorReads = new SingleFlight<>(coalesceWindow, coalesceMaxKeys);
+    }
+
     public List<AuthorDTO> getAllAuthors() {
         return authorRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public long exportAllAuthors(OutputStream outputStream) throws IOException {
+        return NdjsonExport.write(authorRepository::streamAll, this::convertToDTO, objectMapper, entityManager, outputStream);
+    }
+
     public Page<AuthorDTO> getAllAuthors(Pageable pageable) {
         return authorRepository.findAll(pageable)
                 .map(this::convertToDTO);
     }
 
+    /**
+     * Page of authors with only the given fields read and filled in.
+     */
+    public Page<AuthorDTO> getAllAuthors(Pageable pageable, Set<String> fields) {
+        return authorRepository.findDTOs(Specification.where(null), pageable, fields);
+    }
+
+    public CursorPage<AuthorDTO> getAllAuthors(String cursor, int size, Sort sort) {
+        Sort keysetSort = KeysetCursor.validate(sort, size, CURSOR_SORT_PROPERTIES);
+        List<Author> authors = authorRepository.findBy(KeysetCursor.after(cursor, Author.class, keysetSort),
+                query -> query.sortBy(keysetSort).limit(size + 1).all());
+        return KeysetCursor.toPage(authors, size, keysetSort, this::convertToDTO);
+    }
+
     public Optional<AuthorDTO> getAuthorById(Long id) {
-        return authorRepository.findById(id)
-                .map(this::convertToDTO);
+        return authorReads.get(id, () -> readTransaction.execute(status ->
+                Optional.ofNullable(BatchLookup.load(entityManager, Author.class, List.of(id)).get(0))
+                        .map(this::convertToDTO)));
+    }
+
+    @Transactional(readOnly = true)
+    public BatchLookupResult<AuthorDTO, Long> getAuthorsByIds(Collection<Long> ids) {
+        List<Long> keys = BatchLookup.keys(ids, batchMaxSize);
+        Map<Long, Author> authors = BatchLookup.load(entityManager, Author.class, keys).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+        return BatchLookup.result(keys, authors, this::convertToDTO);
+    }
+
+    public Optional<ResourceVersion> getAuthorVersion(Long id) {
+        return authorRepository.findUpdatedAtById(id)
+                .map(updatedAt -> ResourceVersion.of("author-" + id, updatedAt));
+    }
+
+    public ResourceVersion getAuthorsVersion() {
+        CollectionVersion authors = authorRepository.findCollectionVersion();
+        return ResourceVersion.of("authors-" + authors.count(), authors.lastUpdatedAt());
+    }
+
+    /**
+     * Version of author listings with book stats, which change with the books too.
+     */
+    public ResourceVersion getAuthorsWithStatsVersion() {
+        CollectionVersion authors = authorRepository.findCollectionVersion();
+        CollectionVersion books = bookRepository.findCollectionVersion();
+        return ResourceVersion.of("authors-stats-" + authors.count() + "-" + books.count(),
+                authors.lastUpdatedAt(), books.lastUpdatedAt());
+    }
+
+    /**
+     * Fills in book count, average price and latest publication year for every
+     * author on the page with one grouped query, whatever the page size.
+     */
+    public Page<AuthorDTO> withBookStats(Page<AuthorDTO> authors) {
+        Map<Long, AuthorDTO> byId = new LinkedHashMap<>();
+        authors.forEach(author -> byId.put(author.getId(), author));
+        if (byId.isEmpty()) {
+            return authors;
+        }
+        byId.values().forEach(author -> author.setStats(new AuthorStatsDTO(0, null, null)));
+        for (BookRepository.AuthorStatsView stats : bookRepository.findAuthorStats(byId.keySet())) {
+            BigDecimal averagePrice = stats.pricedCount() == 0 ? null
+                    : stats.priceTotal().divide(BigDecimal.valueOf(stats.pricedCount()), 2, RoundingMode.HALF_UP);
+            byId.get(stats.authorId()).setStats(
+                    new AuthorStatsDTO(stats.bookCount(), averagePrice, stats.latestPublicationYear()));
+        }
+        return authors;
     }
 
     public AuthorDTO createAuthor(Author author) {
@@ -39,24 +196,61 @@ public class AuthorService {
             throw new RuntimeException("Author with email " + author.getEmail() + " already exists");
         }
         Author savedAuthor = authorRepository.save(author);
+        authorSearchIndex.index(savedAuthor);
+        suggestIndex.index(savedAuthor);
+        authorReads.forget(savedAuthor.getId());
         return convertToDTO(savedAuthor);
     }
 
     public Optional<AuthorDTO> updateAuthor(Long id, Author authorDetails) {
         return authorRepository.findById(id)
                 .map(author -> {
-                    author.setName(authorDetails.getName());
-                    author.setEmail(authorDetails.getEmail());
-                    author.setBio(authorDetails.getBio());
-                    author.setNationality(authorDetails.getNationality());
+                    boolean nationalityChanged = copyDetails(author, authorDetails);
                     Author updatedAuthor = authorRepository.save(author);
+                    afterUpdate(updatedAuthor, nationalityChanged);
                     return convertToDTO(updatedAuthor);
                 });
     }
 
+    /**
+     * Copies the updatable fields and tells whether the nationality changed.
+     */
+    static boolean copyDetails(Author author, Author authorDetails) {
+        boolean nationalityChanged = !Objects.equals(author.getNationality(), authorDetails.getNationality());
+        author.setName(authorDetails.getName());
+        author.setEmail(authorDetails.getEmail());
+        author.setBio(authorDetails.getBio());
+        author.setNationality(authorDetails.getNationality());
+        return nationalityChanged;
+    }
+
+    /**
+     * Brings the in-memory indexes and coalesced reads up to date with a committed
+     * update; the author's name and nationality show up in all their books.
+     */
+    void afterUpdate(Author author, boolean nationalityChanged) {
+        authorReads.forget(author.getId());
+        authorSearchIndex.index(author);
+        suggestIndex.index(author);
+        bookService.forgetAllBookReads();
+        bookSnapshotIndex.renameAuthor(author.getId(), author.getName());
+        if (nationalityChanged) {
+            bookFacetIndex.updateNationality(bookRepository.findIdsByAuthorId(author.getId()),
+                    author.getNationality());
+        }
+    }
+
     public boolean deleteAuthor(Long id) {
         if (authorRepository.existsById(id)) {
+            List<Long> bookIds = bookRepository.findIdsByAuthorId(id);
             authorRepository.deleteById(id);
+            bookSearchIndex.removeAll(bookIds);
+            bookFacetIndex.removeAll(bookIds);
+            bookSnapshotIndex.removeAll(bookIds);
+            authorSearchIndex.remove(id);
+            suggestIndex.removeAuthor(id, bookIds);
+            authorReads.forget(id);
+            bookService.forgetAllBookReads();
             return true;
         }
         return false;
@@ -68,9 +262,25 @@ public class AuthorService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Typo-tolerant name search: the page is cut from the ids ranked by the
+     * search index and only those authors are loaded.
+     */
     public Page<AuthorDTO> searchAuthorsByName(String name, Pageable pageable) {
-        return authorRepository.findByNameContaining(name, pageable)
-                .map(this::convertToDTO);
+        List<Long> ids = authorSearchIndex.searchByName(name);
+        List<Long> pageIds = pageOf(ids, pageable);
+        List<AuthorDTO> authors = authorRepository.findAllById(pageIds).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(inRankOrder(pageIds, authors), pageable, ids.size());
+    }
+
+    public Page<AuthorDTO> searchAuthorsByName(String name, Pageable pageable, Set<String> fields) {
+        List<Long> ids = authorSearchIndex.searchByName(name);
+        List<Long> pageIds = pageOf(ids, pageable);
+        List<AuthorDTO> authors = pageIds.isEmpty() ? List.of()
+                : authorRepository.findDTOs(AuthorSpecifications.idIn(pageIds), Sort.unsorted(), fields);
+        return new PageImpl<>(inRankOrder(pageIds, authors), pageable, ids.size());
     }
 
     public List<AuthorDTO> getAuthorsByNationality(String nationality) {
@@ -79,7 +289,26 @@ public class AuthorService {
                 .collect(Collectors.toList());
     }
 
-    private AuthorDTO convertToDTO(Author author) {
+    public List<AuthorDTO> getAuthorsByNationality(String nationality, Set<String> fields) {
+        return authorRepository.findDTOs(AuthorSpecifications.withNationality(nationality), Sort.unsorted(), fields);
+    }
+
+    private static List<Long> pageOf(List<Long> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        return ids.subList(from, Math.min(from + pageable.getPageSize(), ids.size()));
+    }
+
+    private static List<AuthorDTO> inRankOrder(List<Long> ids, List<AuthorDTO> authors) {
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return authors.stream()
+                .sorted(Comparator.comparing(author -> rank.get(author.getId())))
+                .collect(Collectors.toList());
+    }
+
+    AuthorDTO convertToDTO(Author author) {
         AuthorDTO dto = new AuthorDTO();
         dto.setId(author.getId());
         dto.setName(author.getName());
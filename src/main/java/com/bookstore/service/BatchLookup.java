@@ -0,0 +1,71 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.BatchLookupResult;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.graph.RootGraph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Multi-key lookups behind the batch endpoints and the single-item reads.
+ * Keys are de-duplicated in request order and capped; entities are resolved
+ * from the persistence context and the second-level cache first, and whatever
+ * is left is read with one {@code IN (...)} query.
+ */
+final class BatchLookup {
+
+    private BatchLookup() {
+    }
+
+    static <K> List<K> keys(Collection<K> requested, int maxSize) {
+        if (requested == null || requested.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Batch keys must be given and must not be null");
+        }
+        List<K> keys = new ArrayList<>(new LinkedHashSet<>(requested));
+        if (keys.size() > maxSize) {
+            throw new IllegalArgumentException("A batch can hold at most " + maxSize + " keys, got " + keys.size());
+        }
+        return keys;
+    }
+
+    /**
+     * Loads entities by id, in id order with null for ids that do not exist.
+     * The given attributes are fetched in the same statement as the entities.
+     */
+    static <T> List<T> load(EntityManager entityManager, Class<T> type, List<Long> ids, String... fetch) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Session session = entityManager.unwrap(Session.class);
+        RootGraph<T> graph = session.createEntityGraph(type);
+        graph.addAttributeNodes(fetch);
+        return session.byMultipleIds(type)
+                .with(graph, GraphSemantic.LOAD)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(ids);
+    }
+
+    static <K, T, D> BatchLookupResult<D, K> result(List<K> keys, Map<K, T> found, Function<T, D> mapper) {
+        List<D> items = new ArrayList<>(found.size());
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            T entity = found.get(key);
+            if (entity == null) {
+                missing.add(key);
+            } else {
+                items.add(mapper.apply(entity));
+            }
+        }
+        return new BatchLookupResult<>(items, missing);
+    }
+}
@@ -1,43 +1,176 @@
 package com.bookstore.service;
 
+import com.bookstore.dto.BatchLookupResult;
+import com.bookstore.dto.BookColumnsDTO;
 import com.bookstore.dto.BookDTO;
+import com.bookstore.dto.BookFacetsDTO;
+import com.bookstore.dto.CursorPage;
 import com.bookstore.model.Author;
 import com.bookstore.model.Book;
 import com.bookstore.repository.AuthorRepository;
 import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.BookSpecifications;
+import com.bookstore.repository.CollectionVersion;
+import com.bookstore.search.BookFacetIndex;
+import com.bookstore.search.BookSearchIndex;
+import com.bookstore.search.BookSnapshotIndex;
+import com.bookstore.search.SuggestIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class BookService {
 
+    private static final Set<String> CURSOR_SORT_PROPERTIES =
+            Set.of("id", "title", "isbn", "publicationYear", "createdAt");
+
     @Autowired
     private BookRepository bookRepository;
 
     @Autowired
     private AuthorRepository authorRepository;
 
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
+
+    @Autowired
+    private BookSnapshotIndex bookSnapshotIndex;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${bookstore.batch.max-size:200}")
+    private int batchMaxSize;
+
+    @Value("${bookstore.search.id-list-limit:1000}")
+    private int idListLimit;
+
+    @Value("${bookstore.reads.coalesce-window:100ms}")
+    private Duration coalesceWindow;
+
+    @Value("${bookstore.reads.max-keys:10000}")
+    private int coalesceMaxKeys;
+
+    private TransactionTemplate readTransaction;
+
+    // Hot reads: concurrent requests for the same book or genre share one load
+    private SingleFlight<Long, Optional<BookDTO>> bookReads;
+
+    private SingleFlight<String, List<BookDTO>> genreReads;
+
+    @PostConstruct
+    void createReadPaths() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        bookReads = new SingleFlight<>(coalesceWindow, coalesceMaxKeys);
+        genreReads = new SingleFlight<>(coalesceWindow, coalesceMaxKeys);
+    }
+
     public List<BookDTO> getAllBooks() {
-        return bookRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return bookRepository.findAllDTOs();
+    }
+
+    @Transactional(readOnly = true)
+    public long exportAllBooks(OutputStream outputStream) throws IOException {
+        return NdjsonExport.write(bookRepository::streamAll, this::convertToDTO, objectMapper, entityManager, outputStream);
     }
 
     public Page<BookDTO> getAllBooks(Pageable pageable) {
-        return bookRepository.findAll(pageable)
-                .map(this::convertToDTO);
+        return bookRepository.findAllDTOs(pageable);
+    }
+
+    public CursorPage<BookDTO> getAllBooks(String cursor, int size, Sort sort) {
+        Sort keysetSort = KeysetCursor.validate(sort, size, CURSOR_SORT_PROPERTIES);
+        List<Book> books = bookRepository.findBy(KeysetCursor.after(cursor, Book.class, keysetSort),
+                query -> query.sortBy(keysetSort).project("author").limit(size + 1).all());
+        return KeysetCursor.toPage(books, size, keysetSort, this::convertToDTO);
     }
 
+    /**
+     * Concurrent calls for the same id share one load, which runs in its own
+     * read-only transaction so waiting callers do not hold a connection.
+     */
     public Optional<BookDTO> getBookById(Long id) {
-        return bookRepository.findById(id)
-                .map(this::convertToDTO);
+        return bookReads.get(id, () -> readTransaction.execute(status ->
+                Optional.ofNullable(loadBooks(List.of(id)).get(0)).map(this::convertToDTO)));
+    }
+
+    @Transactional(readOnly = true)
+    public BatchLookupResult<BookDTO, Long> getBooksByIds(Collection<Long> ids) {
+        List<Long> keys = BatchLookup.keys(ids, batchMaxSize);
+        Map<Long, Book> books = loadBooks(keys).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return BatchLookup.result(keys, books, this::convertToDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public BatchLookupResult<BookDTO, String> getBooksByIsbns(Collection<String> isbns) {
+        List<String> keys = BatchLookup.keys(isbns, batchMaxSize);
+        Map<String, Book> books = keys.isEmpty() ? Map.of() : bookRepository.findByIsbnIn(keys).stream()
+                .collect(Collectors.toMap(Book::getIsbn, Function.identity()));
+        return BatchLookup.result(keys, books, this::convertToDTO);
+    }
+
+    public Optional<ResourceVersion> getBookVersion(Long id) {
+        return bookRepository.findVersionById(id)
+                .map(version -> ResourceVersion.of("book-" + id, version.updatedAt(), version.authorUpdatedAt()));
+    }
+
+    public ResourceVersion getCatalogVersion() {
+        CollectionVersion books = bookRepository.findCollectionVersion();
+        CollectionVersion authors = authorRepository.findCollectionVersion();
+        return ResourceVersion.of("books-" + books.count() + "-" + authors.count(),
+                books.lastUpdatedAt(), authors.lastUpdatedAt());
     }
 
     public BookDTO createBook(Book book, Long authorId) {
@@ -50,70 +183,275 @@ public class BookService {
 
         book.setAuthor(author);
         Book savedBook = bookRepository.save(book);
+        bookSearchIndex.index(savedBook);
+        bookFacetIndex.index(savedBook);
+        bookSnapshotIndex.index(savedBook);
+        suggestIndex.add(savedBook);
+        forgetBookReads(savedBook.getId());
         return convertToDTO(savedBook);
     }
 
+    /**
+     * Applies the update in its own transaction and refreshes the in-memory
+     * indexes once it has committed, so they never show a rolled back change.
+     */
     public Optional<BookDTO> updateBook(Long id, Book bookDetails) {
-        return bookRepository.findById(id)
-                .map(book -> {
-                    book.setTitle(bookDetails.getTitle());
-                    book.setIsbn(bookDetails.getIsbn());
-                    book.setDescription(bookDetails.getDescription());
-                    book.setPublicationYear(bookDetails.getPublicationYear());
-                    book.setPrice(bookDetails.getPrice());
-                    book.setGenre(bookDetails.getGenre());
-                    book.setPageCount(bookDetails.getPageCount());
-                    book.setPublisher(bookDetails.getPublisher());
-                    Book updatedBook = bookRepository.save(book);
-                    return convertToDTO(updatedBook);
-                });
+        Book updatedBook = transactionTemplate.execute(status -> {
+            Book book = loadBooks(List.of(id)).get(0);
+            if (book != null) {
+                copyDetails(book, bookDetails);
+            }
+            return book;
+        });
+        if (updatedBook == null) {
+            return Optional.empty();
+        }
+        afterUpdate(updatedBook);
+        return Optional.of(convertToDTO(updatedBook));
+    }
+
+    static void copyDetails(Book book, Book bookDetails) {
+        book.setTitle(bookDetails.getTitle());
+        book.setIsbn(bookDetails.getIsbn());
+        book.setDescription(bookDetails.getDescription());
+        book.setPublicationYear(bookDetails.getPublicationYear());
+        book.setPrice(bookDetails.getPrice());
+        book.setGenre(bookDetails.getGenre());
+        book.setPageCount(bookDetails.getPageCount());
+        book.setPublisher(bookDetails.getPublisher());
+    }
+
+    /**
+     * Brings the in-memory indexes and coalesced reads up to date with a
+     * committed update.
+     */
+    void afterUpdate(Book book) {
+        bookSearchIndex.index(book);
+        bookFacetIndex.index(book);
+        bookSnapshotIndex.index(book);
+        suggestIndex.index(book);
+        forgetBookReads(book.getId());
     }
 
     public boolean deleteBook(Long id) {
         if (bookRepository.existsById(id)) {
+            Long authorId = bookRepository.findAuthorIdById(id).orElse(null);
             bookRepository.deleteById(id);
+            bookSearchIndex.remove(id);
+            bookFacetIndex.remove(id);
+            bookSnapshotIndex.remove(id);
+            suggestIndex.remove(id, authorId);
+            forgetBookReads(id);
             return true;
         }
         return false;
     }
 
     public List<BookDTO> getBooksByAuthor(Long authorId) {
-        return bookRepository.findByAuthorId(authorId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return bookRepository.findByAuthorId(authorId);
+    }
+
+    public List<BookDTO> getBooksByAuthor(Long authorId, Set<String> fields) {
+        return bookRepository.findDTOs(BookSpecifications.byAuthor(authorId), Sort.unsorted(), fields);
     }
 
     public Page<BookDTO> getBooksByAuthor(Long authorId, Pageable pageable) {
-        return bookRepository.findByAuthorId(authorId, pageable)
-                .map(this::convertToDTO);
+        return bookRepository.findByAuthorId(authorId, pageable);
+    }
+
+    public Page<BookDTO> getBooksByAuthor(Long authorId, Pageable pageable, Set<String> fields) {
+        return bookRepository.findDTOs(BookSpecifications.byAuthor(authorId), pageable, fields);
     }
 
     public List<BookDTO> searchBooksByTitle(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return findInOrder(bookSearchIndex.searchByTitle(title), null);
+    }
+
+    public List<BookDTO> searchBooksByTitle(String title, Set<String> fields) {
+        return findInOrder(bookSearchIndex.searchByTitle(title), fields);
     }
 
     public List<BookDTO> getBooksByGenre(String genre) {
-        return bookRepository.findByGenre(genre).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return bookSnapshotIndex.findByGenre(genre)
+                .orElseGet(() -> genreReads.get(genre, () -> bookRepository.findByGenre(genre)));
+    }
+
+    /**
+     * Genre listing with a fieldset. It bypasses the coalesced reads and the
+     * query cache, which only hold complete books.
+     */
+    public List<BookDTO> getBooksByGenre(String genre, Set<String> fields) {
+        return bookRepository.findDTOs(BookSpecifications.withFilters(genre, null, null), Sort.unsorted(), fields);
     }
 
     public List<BookDTO> getBooksByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return bookRepository.findByPriceBetween(minPrice, maxPrice).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return bookSnapshotIndex.findByPriceBetween(minPrice, maxPrice)
+                .orElseGet(() -> bookRepository.findByPriceBetween(minPrice, maxPrice));
     }
 
     public Page<BookDTO> searchBooksWithFilters(String title, String genre,
                                                 BigDecimal minPrice, BigDecimal maxPrice,
                                                 Pageable pageable) {
-        return bookRepository.findByFilters(title, genre, minPrice, maxPrice, pageable)
-                .map(this::convertToDTO);
+        return searchBooksWithFilters(title, genre, minPrice, maxPrice, pageable, null);
+    }
+
+    /**
+     * Filtered page that selects only the given fields, or every field when
+     * {@code fields} is null.
+     */
+    public Page<BookDTO> searchBooksWithFilters(String title, String genre,
+                                                BigDecimal minPrice, BigDecimal maxPrice,
+                                                Pageable pageable, Set<String> fields) {
+        Specification<Book> filters = BookSpecifications.withFilters(genre, minPrice, maxPrice);
+        List<Long> ids = null;
+        if (title != null && !title.isBlank()) {
+            ids = bookSearchIndex.searchByTitle(title);
+            if (ids.isEmpty()) {
+                return Page.empty(pageable);
+            }
+        }
+        if (fields == null) {
+            Optional<Page<BookDTO>> snapshot = bookSnapshotIndex.find(ids, genre, minPrice, maxPrice, pageable);
+            if (snapshot.isPresent()) {
+                return snapshot.get();
+            }
+        }
+        if (ids != null && ids.size() > idListLimit) {
+            return pageOfMatches(ids, filters, pageable, fields);
+        }
+        if (ids != null) {
+            filters = BookSpecifications.idIn(ids).and(filters);
+        }
+        return fields == null ? bookRepository.findDTOs(filters, pageable)
+                : bookRepository.findDTOs(filters, pageable, fields);
+    }
+
+    public CursorPage<BookDTO> searchBooksWithFilters(String title, String genre,
+                                                      BigDecimal minPrice, BigDecimal maxPrice,
+                                                      String cursor, int size, Sort sort) {
+        Sort keysetSort = KeysetCursor.validate(sort, size, CURSOR_SORT_PROPERTIES);
+        Specification<Book> filters = KeysetCursor.after(cursor, Book.class, keysetSort)
+                .and(BookSpecifications.withFilters(genre, minPrice, maxPrice));
+        if (title != null && !title.isBlank()) {
+            List<Long> ids = bookSearchIndex.searchByTitle(title);
+            if (ids.isEmpty()) {
+                return KeysetCursor.toPage(List.<Book>of(), size, keysetSort, this::convertToDTO);
+            }
+            if (ids.size() > idListLimit) {
+                List<Long> pageIds = new ArrayList<>(size + 1);
+                Set<Long> matches = new HashSet<>(ids);
+                bookRepository.forEachId(filters, keysetSort, id -> {
+                    if (matches.contains(id)) {
+                        pageIds.add(id);
+                    }
+                    return pageIds.size() <= size;
+                });
+                List<Book> books = bookRepository.findBy(BookSpecifications.idIn(pageIds),
+                        query -> query.project("author").all());
+                return KeysetCursor.toPage(inIdOrder(pageIds, books, Book::getId), size, keysetSort,
+                        this::convertToDTO);
+            }
+            filters = filters.and(BookSpecifications.idIn(ids));
+        }
+        List<Book> books = bookRepository.findBy(filters,
+                query -> query.sortBy(keysetSort).project("author").limit(size + 1).all());
+        return KeysetCursor.toPage(books, size, keysetSort, this::convertToDTO);
+    }
+
+    public BookFacetsDTO getFacets(String title, String genre, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (title == null || title.isBlank()) {
+            return bookFacetIndex.count(genre, minPrice, maxPrice);
+        }
+        return bookFacetIndex.count(bookSearchIndex.searchByTitle(title), genre, minPrice, maxPrice);
     }
 
-    private BookDTO convertToDTO(Book book) {
+    /**
+     * Drops every coalesced book read, for changes such as an author rename
+     * that show up in many books.
+     */
+    void forgetAllBookReads() {
+        bookReads.forgetAll();
+        genreReads.forgetAll();
+    }
+
+    private static List<BookDTO> inRankOrder(List<Long> ids, List<BookDTO> books) {
+        return inIdOrder(ids, books, BookDTO::getId);
+    }
+
+    private static <T> List<T> inIdOrder(List<Long> ids, List<T> books, Function<T, Long> id) {
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return books.stream()
+                .sorted(Comparator.comparing(book -> rank.get(id.apply(book))))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Books by id in the order given, read {@code bookstore.search.id-list-limit}
+     * ids per statement: a statement takes a bounded number of parameters, and
+     * a broad title search can match most of the catalog.
+     */
+    private List<BookDTO> findInOrder(List<Long> ids, Set<String> fields) {
+        List<BookDTO> books = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += idListLimit) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + idListLimit));
+            books.addAll(fields == null ? bookRepository.findByIdIn(chunk)
+                    : bookRepository.findDTOs(BookSpecifications.idIn(chunk), Sort.unsorted(), fields));
+        }
+        return inRankOrder(ids, books);
+    }
+
+    /**
+     * A page of the title matches when there are too many to pass to the
+     * database as an id list. The ids of the books passing the other filters
+     * are walked in the requested order and intersected with the matches in
+     * memory, then only the page's books are read.
+     */
+    private Page<BookDTO> pageOfMatches(List<Long> ids, Specification<Book> filters, Pageable pageable,
+                                        Set<String> fields) {
+        Set<Long> matches = new HashSet<>(ids);
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long limit = pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE;
+        List<Long> pageIds = new ArrayList<>();
+        long[] total = {0};
+        bookRepository.forEachId(filters, pageable.getSort(), id -> {
+            if (matches.contains(id)) {
+                if (total[0] >= offset && pageIds.size() < limit) {
+                    pageIds.add(id);
+                }
+                total[0]++;
+            }
+            return true;
+        });
+        return new PageImpl<>(findInOrder(pageIds, fields), pageable, total[0]);
+    }
+
+    private void forgetBookReads(Long id) {
+        bookReads.forget(id);
+        genreReads.forgetAll();
+    }
+
+    /**
+     * Single and batch reads by id share this path. Books and authors already in
+     * the second-level cache cost no statement; missing books are read with their
+     * authors in one statement, and missing authors of cached books in one more.
+     */
+    List<Book> loadBooks(List<Long> ids) {
+        List<Book> books = BatchLookup.load(entityManager, Book.class, ids, "author");
+        List<Author> proxies = books.stream()
+                .filter(book -> book != null && book.getAuthor() != null && !Hibernate.isInitialized(book.getAuthor()))
+                .map(Book::getAuthor)
+                .collect(Collectors.toList());
+        BatchLookup.load(entityManager, Author.class,
+                proxies.stream().map(Author::getId).distinct().collect(Collectors.toList()));
+        // The proxies now resolve from the persistence context without another statement
+        proxies.forEach(Hibernate::initialize);
+        return books;
+    }
+
+    BookDTO convertToDTO(Book book) {
         BookDTO dto = new BookDTO();
         dto.setId(book.getId());
         dto.setTitle(book.getTitle());
@@ -134,4 +472,64 @@ public class BookService {
 
         return dto;
     }
-}
\ No newline at end of file
+
+    /**
+     * Lays a page of books out column by column, so each property name is
+     * written once per page instead of once per book. Prices become whole cents
+     * and timestamps epoch milliseconds, which are plain numbers in every format.
+     */
+    public BookColumnsDTO convertToColumns(Page<BookDTO> page) {
+        List<BookDTO> books = page.getContent();
+        int rows = books.size();
+        BookColumnsDTO columns = new BookColumnsDTO(page.getNumber(), page.getSize(), page.getTotalElements(),
+                page.getTotalPages());
+        long[] id = new long[rows];
+        String[] title = new String[rows];
+        String[] isbn = new String[rows];
+        String[] description = new String[rows];
+        Integer[] publicationYear = new Integer[rows];
+        Long[] priceCents = new Long[rows];
+        String[] genre = new String[rows];
+        Integer[] pageCount = new Integer[rows];
+        String[] publisher = new String[rows];
+        Long[] createdAtMillis = new Long[rows];
+        Long[] updatedAtMillis = new Long[rows];
+        Long[] authorId = new Long[rows];
+        String[] authorName = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            BookDTO book = books.get(i);
+            id[i] = book.getId();
+            title[i] = book.getTitle();
+            isbn[i] = book.getIsbn();
+            description[i] = book.getDescription();
+            publicationYear[i] = book.getPublicationYear();
+            priceCents[i] = book.getPrice() == null ? null
+                    : book.getPrice().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            genre[i] = book.getGenre();
+            pageCount[i] = book.getPageCount();
+            publisher[i] = book.getPublisher();
+            createdAtMillis[i] = epochMillis(book.getCreatedAt());
+            updatedAtMillis[i] = epochMillis(book.getUpdatedAt());
+            authorId[i] = book.getAuthorId();
+            authorName[i] = book.getAuthorName();
+        }
+        columns.setId(id);
+        columns.setTitle(title);
+        columns.setIsbn(isbn);
+        columns.setDescription(description);
+        columns.setPublicationYear(publicationYear);
+        columns.setPriceCents(priceCents);
+        columns.setGenre(genre);
+        columns.setPageCount(pageCount);
+        columns.setPublisher(publisher);
+        columns.setCreatedAtMillis(createdAtMillis);
+        columns.setUpdatedAtMillis(updatedAtMillis);
+        columns.setAuthorId(authorId);
+        columns.setAuthorName(authorName);
+        return columns;
+    }
+
+    private static Long epochMillis(LocalDateTime timestamp) {
+        return timestamp == null ? null : timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
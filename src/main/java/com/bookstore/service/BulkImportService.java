@@ -0,0 +1,349 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.AuthorDTO;
+import com.bookstore.dto.BookDTO;
+import com.bookstore.dto.BulkImportError;
+import com.bookstore.dto.BulkImportResult;
+import com.bookstore.model.Author;
+import com.bookstore.model.Book;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.search.AuthorSearchIndex;
+import com.bookstore.search.BookFacetIndex;
+import com.bookstore.search.BookSearchIndex;
+import com.bookstore.search.BookSnapshotIndex;
+import com.bookstore.search.SuggestIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Imports books and authors from NDJSON or CSV streams. Rows are processed in
+ * chunks: each chunk is validated, checked for duplicate keys with a single
+ * {@code IN (...)} query and inserted in one transaction, so Hibernate can send
+ * the inserts as JDBC batches. Rows that fail are reported with their line
+ * number and the rest of the import carries on.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    @Value("${bookstore.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${bookstore.bulk.max-errors:1000}")
+    private int maxErrors;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
+
+    @Autowired
+    private BookSnapshotIndex bookSnapshotIndex;
+
+    @Autowired
+    private AuthorSearchIndex authorSearchIndex;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BulkImportResult importBooks(InputStream input, MediaType format) {
+        Tally tally = new Tally(maxErrors);
+        Map<Long, AuthorRepository.NationalityView> knownAuthors = new HashMap<>();
+        readInChunks(input, format, BookDTO.class, tally, chunk -> importBookChunk(chunk, knownAuthors, tally));
+        bookService.forgetAllBookReads();
+        BulkImportResult result = tally.toResult();
+        log.info("Imported {} of {} books in {} ms", result.getImported(), result.getReceived(), result.getDurationMs());
+        return result;
+    }
+
+    public BulkImportResult importAuthors(InputStream input, MediaType format) {
+        Tally tally = new Tally(maxErrors);
+        readInChunks(input, format, AuthorDTO.class, tally, chunk -> importAuthorChunk(chunk, tally));
+        BulkImportResult result = tally.toResult();
+        log.info("Imported {} of {} authors in {} ms", result.getImported(), result.getReceived(), result.getDurationMs());
+        return result;
+    }
+
+    private void importBookChunk(List<ImportRows.Row<BookDTO>> chunk, Map<Long, AuthorRepository.NationalityView> knownAuthors, Tally tally) {
+        List<Pending<Book>> pending = new ArrayList<>();
+        Map<String, Long> authorIds = new HashMap<>();
+        for (ImportRows.Row<BookDTO> row : chunk) {
+            tally.received++;
+            if (row.error() != null) {
+                tally.fail(row.line(), null, row.error());
+                continue;
+            }
+            BookDTO dto = row.value();
+            String violations = violations(toBook(dto));
+            if (violations != null) {
+                tally.fail(row.line(), dto.getIsbn(), violations);
+            } else if (dto.getAuthorId() == null) {
+                tally.fail(row.line(), dto.getIsbn(), "Author id is mandatory");
+            } else if (authorIds.putIfAbsent(dto.getIsbn(), dto.getAuthorId()) != null) {
+                tally.fail(row.line(), dto.getIsbn(), "Duplicate ISBN " + dto.getIsbn() + " in this import");
+            } else {
+                pending.add(new Pending<>(row.line(), dto.getIsbn(), () -> {
+                    Book book = toBook(dto);
+                    book.setAuthor(entityManager.getReference(Author.class, dto.getAuthorId()));
+                    return book;
+                }));
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingIsbns = new HashSet<>(bookRepository.findExistingIsbns(authorIds.keySet()));
+        Set<Long> unresolved = authorIds.values().stream()
+                .filter(id -> !knownAuthors.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!unresolved.isEmpty()) {
+            Map<Long, AuthorRepository.NationalityView> found = authorRepository.findNationalities(unresolved).stream()
+                    .collect(Collectors.toMap(AuthorRepository.NationalityView::id, author -> author));
+            unresolved.forEach(id -> knownAuthors.put(id, found.get(id)));
+        }
+
+        List<Pending<Book>> accepted = new ArrayList<>(pending.size());
+        for (Pending<Book> row : pending) {
+            Long authorId = authorIds.get(row.key());
+            if (existingIsbns.contains(row.key())) {
+                tally.fail(row.line(), row.key(), "Book with ISBN " + row.key() + " already exists");
+            } else if (knownAuthors.get(authorId) == null) {
+                tally.fail(row.line(), row.key(), "Author not found with id: " + authorId);
+            } else {
+                accepted.add(row);
+            }
+        }
+        for (Book book : persist(accepted, tally)) {
+            AuthorRepository.NationalityView author = knownAuthors.get(book.getAuthor().getId());
+            bookSearchIndex.index(book);
+            bookFacetIndex.index(book, author.nationality());
+            bookSnapshotIndex.index(book, author.name());
+            suggestIndex.add(book);
+        }
+    }
+
+    private void importAuthorChunk(List<ImportRows.Row<AuthorDTO>> chunk, Tally tally) {
+        List<Pending<Author>> pending = new ArrayList<>();
+        Set<String> emails = new HashSet<>();
+        for (ImportRows.Row<AuthorDTO> row : chunk) {
+            tally.received++;
+            if (row.error() != null) {
+                tally.fail(row.line(), null, row.error());
+                continue;
+            }
+            AuthorDTO dto = row.value();
+            String violations = violations(toAuthor(dto));
+            if (violations != null) {
+                tally.fail(row.line(), dto.getEmail(), violations);
+            } else if (dto.getEmail() != null && !emails.add(dto.getEmail())) {
+                tally.fail(row.line(), dto.getEmail(), "Duplicate email " + dto.getEmail() + " in this import");
+            } else {
+                pending.add(new Pending<>(row.line(), dto.getEmail(), () -> toAuthor(dto)));
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingEmails = emails.isEmpty() ? Set.of()
+                : new HashSet<>(authorRepository.findExistingEmails(emails));
+        List<Pending<Author>> accepted = new ArrayList<>(pending.size());
+        for (Pending<Author> row : pending) {
+            if (row.key() != null && existingEmails.contains(row.key())) {
+                tally.fail(row.line(), row.key(), "Author with email " + row.key() + " already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+        for (Author author : persist(accepted, tally)) {
+            authorSearchIndex.index(author);
+            suggestIndex.index(author);
+        }
+    }
+
+    /**
+     * Hands the rows to the importer a chunk at a time. If the stream breaks
+     * off, the rows read before the break are still imported and the result
+     * is marked aborted at the line where reading stopped.
+     */
+    private <T> void readInChunks(InputStream input, MediaType format, Class<T> type, Tally tally,
+                                  Consumer<List<ImportRows.Row<T>>> importer) {
+        List<ImportRows.Row<T>> chunk = new ArrayList<>(chunkSize);
+        try {
+            ImportRows.read(input, format, type, objectMapper, row -> {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importer.accept(chunk);
+                    chunk.clear();
+                }
+            });
+        } catch (ImportRows.UnreadableStreamException e) {
+            log.debug("Import stream unreadable at line {}", e.line(), e);
+            tally.abort(e.line(), e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            importer.accept(chunk);
+        }
+    }
+
+    /**
+     * Inserts the whole chunk in one transaction. If that fails (for example a
+     * row that only the database rejects, or a concurrent insert of the same
+     * key), the chunk is retried row by row so only the offending rows fail.
+     * A failure that is not about the row itself, such as a lost connection,
+     * ends the import and reaches the caller.
+     */
+    private <E> List<E> persist(List<Pending<E>> rows, Tally tally) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        try {
+            List<E> persisted = transactionTemplate.execute(status -> persistAll(rows));
+            tally.imported += persisted.size();
+            return persisted;
+        } catch (RuntimeException e) {
+            log.debug("Bulk insert of {} rows failed, retrying row by row", rows.size(), e);
+        }
+        List<E> persisted = new ArrayList<>(rows.size());
+        for (Pending<E> row : rows) {
+            try {
+                persisted.addAll(transactionTemplate.execute(status -> persistAll(List.of(row))));
+                tally.imported++;
+            } catch (RuntimeException e) {
+                if (!rejectsRow(e)) {
+                    throw e;
+                }
+                tally.fail(row.line(), row.key(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+        return persisted;
+    }
+
+    // SQL state classes 22 (data exception) and 23 (integrity constraint violation)
+    private static boolean rejectsRow(RuntimeException e) {
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sql && sql.getSQLState() != null
+                && (sql.getSQLState().startsWith("22") || sql.getSQLState().startsWith("23"));
+    }
+
+    private <E> List<E> persistAll(List<Pending<E>> rows) {
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        List<E> entities = new ArrayList<>(rows.size());
+        for (Pending<E> row : rows) {
+            E entity = row.entity().get();
+            entityManager.persist(entity);
+            entities.add(entity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return entities;
+    }
+
+    private String violations(Object entity) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(entity);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static Book toBook(BookDTO dto) {
+        return new Book(dto.getTitle(), dto.getIsbn(), dto.getDescription(), dto.getPublicationYear(),
+                dto.getPrice(), dto.getGenre(), dto.getPageCount(), dto.getPublisher());
+    }
+
+    private static Author toAuthor(AuthorDTO dto) {
+        return new Author(dto.getName(), dto.getEmail(), dto.getBio(), dto.getNationality());
+    }
+
+    private record Pending<E>(long line, String key, Supplier<E> entity) {
+    }
+
+    private static final class Tally {
+        private final int maxErrors;
+        private final long start = System.nanoTime();
+        private final List<BulkImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+        private boolean aborted;
+
+        Tally(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(long line, String key, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new BulkImportError(line, key, message));
+            }
+        }
+
+        // The line the stream broke off at is reported even when the error list is full
+        void abort(long line, String message) {
+            received++;
+            failed++;
+            aborted = true;
+            errors.add(new BulkImportError(line, null, message));
+        }
+
+        BulkImportResult toResult() {
+            errors.sort(Comparator.comparingLong(BulkImportError::getLine));
+            return new BulkImportResult(received, imported, failed, (System.nanoTime() - start) / 1_000_000,
+                    errors, failed > errors.size(), aborted);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.CacheRegionStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class CacheStatisticsService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatsDTO> getRegionStatistics() {
+        Statistics statistics = getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toDTO(region, statistics.getCacheRegionStatistics(region)))
+                .toList();
+    }
+
+    public Optional<CacheRegionStatsDTO> getRegionStatistics(String region) {
+        CacheRegionStatistics regionStatistics = getStatistics().getCacheRegionStatistics(region);
+        return Optional.ofNullable(regionStatistics).map(stats -> toDTO(region, stats));
+    }
+
+    public void evictAll() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private Statistics getStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private CacheRegionStatsDTO toDTO(String region, CacheRegionStatistics stats) {
+        return new CacheRegionStatsDTO(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                getEvictionCount(region));
+    }
+
+    private long getEvictionCount(String region) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName pattern = new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*");
+            for (ObjectName name : server.queryNames(pattern, null)) {
+                return ((Number) server.getAttribute(name, "CacheEvictions")).longValue();
+            }
+        } catch (Exception e) {
+            // statistics MBeans are optional; report no evictions rather than failing the request
+        }
+        return 0;
+    }
+}
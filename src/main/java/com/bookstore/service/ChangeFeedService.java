@@ -0,0 +1,105 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.AuthorDTO;
+import com.bookstore.dto.BatchLookupResult;
+import com.bookstore.dto.BookDTO;
+import com.bookstore.dto.ChangeDTO;
+import com.bookstore.dto.CursorPage;
+import com.bookstore.model.ChangeLogEntry;
+import com.bookstore.repository.ChangeLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the change log for consumers that keep a copy of the catalog. The
+ * cursor is the sequence of the last change seen; upserts carry the current
+ * state of the book or author, read in one batch per page, and deletes are
+ * tombstones with the id only. An upsert of a row deleted since has no state,
+ * and its tombstone follows later in the feed.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ChangeFeedService {
+
+    private static final String BOOK = "book";
+    private static final String AUTHOR = "author";
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Value("${bookstore.batch.max-size:200}")
+    private int maxSize;
+
+    /**
+     * Without a cursor the page is empty and its cursor is the current head,
+     * so a consumer can take a snapshot and follow the feed from there.
+     */
+    public CursorPage<ChangeDTO> getChanges(String since, int size) {
+        if (size < 1 || size > maxSize) {
+            throw new IllegalArgumentException("Size must be between 1 and " + maxSize);
+        }
+        if (since == null || since.isEmpty()) {
+            return new CursorPage<>(List.of(), size, false, String.valueOf(changeLogRepository.findLatestId()));
+        }
+        long sequence = parseCursor(since);
+        List<ChangeLogEntry> entries = changeLogRepository.findAfter(sequence, PageRequest.of(0, size + 1));
+        boolean hasNext = entries.size() > size;
+        if (hasNext) {
+            entries = entries.subList(0, size);
+        }
+        Map<Long, BookDTO> books = upserted(entries, BOOK, bookService::getBooksByIds).stream()
+                .collect(Collectors.toMap(BookDTO::getId, Function.identity()));
+        Map<Long, AuthorDTO> authors = upserted(entries, AUTHOR, authorService::getAuthorsByIds).stream()
+                .collect(Collectors.toMap(AuthorDTO::getId, Function.identity()));
+        List<ChangeDTO> changes = entries.stream().map(entry -> {
+            ChangeDTO change = new ChangeDTO(entry.getId(), entry.getEntityType(), entry.getEntityId(),
+                    entry.getOperation().name(), entry.getChangedAt());
+            if (entry.getOperation() == ChangeLogEntry.Operation.UPSERT) {
+                change.setBook(BOOK.equals(entry.getEntityType()) ? books.get(entry.getEntityId()) : null);
+                change.setAuthor(AUTHOR.equals(entry.getEntityType()) ? authors.get(entry.getEntityId()) : null);
+            }
+            return change;
+        }).collect(Collectors.toList());
+        // An empty page keeps the caller's cursor, to be polled again later
+        String nextCursor = entries.isEmpty() ? String.valueOf(sequence)
+                : String.valueOf(entries.get(entries.size() - 1).getId());
+        return new CursorPage<>(changes, size, hasNext, nextCursor);
+    }
+
+    private static <T> List<T> upserted(List<ChangeLogEntry> entries, String entityType,
+                                        Function<List<Long>, BatchLookupResult<T, Long>> lookup) {
+        List<Long> ids = entries.stream()
+                .filter(entry -> entry.getOperation() == ChangeLogEntry.Operation.UPSERT
+                        && entityType.equals(entry.getEntityType()))
+                .map(ChangeLogEntry::getEntityId)
+                .distinct()
+                .collect(Collectors.toList());
+        return ids.isEmpty() ? List.of() : lookup.apply(ids).getItems();
+    }
+
+    private static long parseCursor(String cursor) {
+        try {
+            long sequence = Long.parseLong(cursor);
+            if (sequence < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return sequence;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
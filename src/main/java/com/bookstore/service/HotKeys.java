@@ -0,0 +1,110 @@
+package com.bookstore.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Counts client reads of single books, genres and single authors, so the most
+ * requested ones can be saved on shutdown and read back by the warm-up of the
+ * next start. At most {@code maxKeys} keys of each kind are counted; once a
+ * kind is full, a new key replaces the least read one.
+ */
+@Component
+public class HotKeys {
+
+    public record Snapshot(List<Long> books, List<String> genres, List<Long> authors) {
+        static final Snapshot EMPTY = new Snapshot(List.of(), List.of(), List.of());
+    }
+
+    private final Counts<Long> books;
+    private final Counts<String> genres;
+    private final Counts<Long> authors;
+
+    public HotKeys(@Value("${bookstore.warmup.tracked-keys:10000}") int maxKeys) {
+        this.books = new Counts<>(maxKeys);
+        this.genres = new Counts<>(maxKeys);
+        this.authors = new Counts<>(maxKeys);
+    }
+
+    public void book(Long id) {
+        books.increment(id);
+    }
+
+    public void genre(String genre) {
+        genres.increment(genre);
+    }
+
+    public void author(Long id) {
+        authors.increment(id);
+    }
+
+    /**
+     * The most read keys of each kind, most read first.
+     */
+    public Snapshot top(int bookCount, int genreCount, int authorCount) {
+        return new Snapshot(books.top(bookCount), genres.top(genreCount), authors.top(authorCount));
+    }
+
+    /**
+     * Space-saving counts: when full, the least read key makes room for the
+     * new one, which starts from the evicted count plus one. A key read more
+     * often than that is always kept, so a key that turns hot late in a run
+     * still overtakes the early ones.
+     */
+    private static final class Counts<K> {
+
+        private final Map<K, Long> counts = new HashMap<>();
+        private final TreeMap<Long, Set<K>> keysByCount = new TreeMap<>();
+        private final int maxKeys;
+
+        Counts(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        synchronized void increment(K key) {
+            Long count = counts.get(key);
+            if (count != null) {
+                unlink(key, count);
+            } else if (counts.size() >= maxKeys) {
+                Map.Entry<Long, Set<K>> least = keysByCount.firstEntry();
+                K evicted = least.getValue().iterator().next();
+                unlink(evicted, least.getKey());
+                counts.remove(evicted);
+                count = least.getKey();
+            } else {
+                count = 0L;
+            }
+            counts.put(key, count + 1);
+            keysByCount.computeIfAbsent(count + 1, c -> new LinkedHashSet<>()).add(key);
+        }
+
+        synchronized List<K> top(int limit) {
+            List<K> top = new ArrayList<>();
+            for (Set<K> keys : keysByCount.descendingMap().values()) {
+                for (K key : keys) {
+                    if (top.size() == limit) {
+                        return top;
+                    }
+                    top.add(key);
+                }
+            }
+            return top;
+        }
+
+        private void unlink(K key, long count) {
+            Set<K> keys = keysByCount.get(count);
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByCount.remove(count);
+            }
+        }
+    }
+}
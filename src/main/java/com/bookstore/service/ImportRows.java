@@ -0,0 +1,137 @@
+package com.bookstore.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads an import stream one row at a time, either as newline-delimited JSON or
+ * as CSV with a header line. A row that cannot be parsed is handed on with an
+ * error instead of a value, so one bad line does not fail the whole import.
+ * When the stream itself cannot be read further (a CSV quote that is never
+ * closed, a broken connection), reading stops with an
+ * {@link UnreadableStreamException} after the rows before it were handed on.
+ */
+final class ImportRows {
+
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+            .build();
+
+    private ImportRows() {
+    }
+
+    record Row<T>(long line, T value, String error) {
+    }
+
+    static final class UnreadableStreamException extends IOException {
+
+        private final long line;
+
+        UnreadableStreamException(long line, String message, Throwable cause) {
+            super(message, cause);
+            this.line = line;
+        }
+
+        long line() {
+            return line;
+        }
+    }
+
+    static <T> void read(InputStream input, MediaType format, Class<T> type, ObjectMapper objectMapper,
+                         Consumer<Row<T>> consumer) throws UnreadableStreamException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        if (format != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(format)) {
+            readNdjson(reader, type, objectMapper, consumer);
+        } else if (format != null && TEXT_CSV.isCompatibleWith(format)) {
+            readCsv(reader, type, objectMapper, consumer);
+        } else {
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+    }
+
+    private static <T> void readNdjson(BufferedReader reader, Class<T> type, ObjectMapper objectMapper,
+                                       Consumer<Row<T>> consumer) throws UnreadableStreamException {
+        ObjectReader rowReader = objectMapper.readerFor(type);
+        long line = 0;
+        String text;
+        while ((text = readLine(reader, line + 1)) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            Row<T> row;
+            try {
+                row = new Row<>(line, rowReader.readValue(text), null);
+            } catch (JsonProcessingException e) {
+                row = new Row<>(line, null, e.getOriginalMessage());
+            }
+            consumer.accept(row);
+        }
+    }
+
+    private static String readLine(BufferedReader reader, long line) throws UnreadableStreamException {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UnreadableStreamException(line, e.getMessage(), e);
+        }
+    }
+
+    private static <T> void readCsv(BufferedReader reader, Class<T> type, ObjectMapper objectMapper,
+                                    Consumer<Row<T>> consumer) throws UnreadableStreamException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        JsonParser parser;
+        try {
+            parser = CSV_MAPPER.readerForMapOf(String.class).with(schema).createParser(reader);
+        } catch (IOException e) {
+            throw new UnreadableStreamException(1, e.getMessage(), e);
+        }
+        try (parser) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonToken token = parser.nextToken();
+                // Lines as the parser counts them: empty lines are skipped and a quoted value may span lines
+                long line = parser.getTokenLocation().getLineNr();
+                Map<String, String> columns = new HashMap<>();
+                while (token == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    if (!parser.getText().isEmpty()) {
+                        columns.put(name, parser.getText());
+                    }
+                    token = parser.nextToken();
+                }
+                Row<T> row;
+                try {
+                    row = new Row<>(line, objectMapper.convertValue(columns, type), null);
+                } catch (IllegalArgumentException e) {
+                    row = new Row<>(line, null, e.getCause() instanceof JsonProcessingException cause
+                            ? cause.getOriginalMessage() : e.getMessage());
+                }
+                consumer.accept(row);
+            }
+        } catch (IOException e) {
+            throw new UnreadableStreamException(parser.getTokenLocation().getLineNr(),
+                    e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage(), e);
+        }
+    }
+}
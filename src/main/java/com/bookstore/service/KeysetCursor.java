@@ -0,0 +1,141 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.CursorPage;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset (seek) pagination support. A cursor is an opaque URL-safe token holding
+ * the sort key and id of the last row of the previous page; the next page is
+ * read with {@code WHERE sortKey > :key OR (sortKey = :key AND id > :id)}, so
+ * its cost does not grow with the position in the result set.
+ */
+final class KeysetCursor {
+
+    static final int MAX_SIZE = 1000;
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Checks the page size and sort order of a cursor request and returns the
+     * sort with the id added as the tie-breaker.
+     */
+    static Sort validate(Sort sort, int size, Set<String> allowedProperties) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_SIZE);
+        }
+        if (sort.stream().count() != 1) {
+            throw new IllegalArgumentException("Cursor pagination needs exactly one sort property");
+        }
+        Sort.Order order = sort.iterator().next();
+        if (!allowedProperties.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Cursor pagination cannot sort by " + order.getProperty());
+        }
+        if (order.getProperty().equals("id")) {
+            return sort;
+        }
+        return sort.and(Sort.by(order.getDirection(), "id"));
+    }
+
+    static <T> Specification<T> after(String token, Class<T> entityType, Sort sort) {
+        if (token == null || token.isBlank()) {
+            return Specification.where(null);
+        }
+        Map<String, Object> keys = decode(token, entityType);
+        if (!keys.keySet().equals(sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet()))) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+        boolean descending = sort.iterator().next().isDescending();
+        return (root, query, builder) -> {
+            Predicate tieBreak = null;
+            List<Sort.Order> orders = sort.toList();
+            for (int i = orders.size() - 1; i >= 0; i--) {
+                String property = orders.get(i).getProperty();
+                Predicate beyond = beyond(builder, root.get(property), keys.get(property), descending);
+                tieBreak = tieBreak == null ? beyond
+                        : builder.or(beyond, builder.and(builder.equal(root.get(property), keys.get(property)), tieBreak));
+            }
+            return tieBreak;
+        };
+    }
+
+    static <T, D> CursorPage<D> toPage(List<T> rows, int size, Sort sort, Function<T, D> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encode(content.get(content.size() - 1), sort) : null;
+        return new CursorPage<>(content.stream().map(mapper).toList(), size, hasNext, nextCursor);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder builder, Path<?> path, Object key, boolean descending) {
+        Comparable value = (Comparable) key;
+        Path<Comparable> comparable = (Path<Comparable>) path;
+        return descending ? builder.lessThan(comparable, value) : builder.greaterThan(comparable, value);
+    }
+
+    private static String encode(Object row, Sort sort) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(row);
+        StringJoiner joiner = new StringJoiner("&");
+        for (Sort.Order order : sort) {
+            Object value = wrapper.getPropertyValue(order.getProperty());
+            joiner.add(order.getProperty() + "=" + URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, Object> decode(String token, Class<?> entityType) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            for (String pair : decoded.split("&")) {
+                int separator = pair.indexOf('=');
+                String property = pair.substring(0, separator);
+                String value = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                keys.put(property, parse(entityType, property, value));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        return keys;
+    }
+
+    private static Object parse(Class<?> entityType, String property, String value) {
+        Field field = ReflectionUtils.findField(entityType, property);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown cursor property " + property);
+        }
+        Class<?> type = field.getType();
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        } else if (type == Integer.class) {
+            return Integer.valueOf(value);
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        return value;
+    }
+}
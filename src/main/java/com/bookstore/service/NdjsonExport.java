@@ -0,0 +1,59 @@
+package com.bookstore.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository stream as newline-delimited JSON. Rows are mapped and
+ * written one at a time and the persistence context is cleared every
+ * {@link #BATCH_SIZE} rows, so heap usage does not depend on the row count.
+ * The rows bypass the second-level cache, so an export does not evict the
+ * entries hot reads depend on.
+ */
+final class NdjsonExport {
+
+    static final int BATCH_SIZE = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private NdjsonExport() {
+    }
+
+    static <T, D> long write(Supplier<Stream<T>> rows, Function<T, D> mapper, ObjectMapper objectMapper,
+                             EntityManager entityManager, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        OutputStream buffered = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        long count = 0;
+        try (Stream<T> stream = rows.get();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(buffered)) {
+            generator.setRootValueSeparator(null);
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, mapper.apply(iterator.next()));
+                generator.writeRaw('\n');
+                if (++count % BATCH_SIZE == 0) {
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        return count;
+    }
+}
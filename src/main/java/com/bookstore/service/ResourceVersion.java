@@ -0,0 +1,49 @@
+package com.bookstore.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Validators for a conditional GET: an ETag built from the key and the
+ * {@code updatedAt} timestamps the representation depends on, and the latest
+ * of those timestamps as {@code Last-Modified} in epoch milliseconds (-1 when
+ * there is none). Both come from a version lookup, so a {@code 304} never
+ * loads or serializes the resource itself.
+ * <p>
+ * The ETag is weak because the same version is served gzip-compressed or not
+ * (Tomcat never compresses a response with a strong ETag); each negotiated
+ * format gets its own tag through {@link #variant(String)}.
+ */
+public record ResourceVersion(String eTag, long lastModified) {
+
+    static ResourceVersion of(String key, LocalDateTime... timestamps) {
+        StringBuilder eTag = new StringBuilder("W/\"").append(key);
+        LocalDateTime latest = null;
+        for (LocalDateTime timestamp : timestamps) {
+            eTag.append('-');
+            if (timestamp == null) {
+                eTag.append('0');
+                continue;
+            }
+            long micros = timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+            eTag.append(Long.toHexString(micros));
+            if (latest == null || timestamp.isAfter(latest)) {
+                latest = timestamp;
+            }
+        }
+        long lastModified = latest == null ? -1 : latest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new ResourceVersion(eTag.append('"').toString(), lastModified);
+    }
+
+    /**
+     * This version for another format of the resource, such as a CBOR body;
+     * an empty name is the default JSON representation.
+     */
+    public ResourceVersion variant(String format) {
+        if (format.isEmpty()) {
+            return this;
+        }
+        return new ResourceVersion(eTag.substring(0, eTag.length() - 1) + ';' + format + '"', lastModified);
+    }
+}
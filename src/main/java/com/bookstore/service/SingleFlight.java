@@ -0,0 +1,115 @@
+package com.bookstore.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: the first caller for a key runs the
+ * load and everyone asking for the same key meanwhile waits for that result
+ * instead of running the load again. A finished result is handed out for a
+ * further {@code window}, so a burst of requests arriving just after the load
+ * still shares it. Failures are never shared beyond the callers already waiting.
+ * <p>
+ * Keys live in a {@link ConcurrentHashMap} and are claimed with
+ * {@code putIfAbsent}/{@code replace}, so callers for different keys never
+ * block each other. At most {@code maxKeys} keys are tracked; when the table is
+ * full of live entries, further keys are loaded directly without coalescing.
+ * Results are shared between callers and must not be modified.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight> flights = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final int maxKeys;
+
+    SingleFlight(Duration window, int maxKeys) {
+        this.windowNanos = window.toNanos();
+        this.maxKeys = maxKeys;
+    }
+
+    V get(K key, Supplier<V> loader) {
+        while (true) {
+            long now = System.nanoTime();
+            Flight flight = flights.get(key);
+            if (flight != null && flight.servable(now)) {
+                return flight.await();
+            }
+            if (flight == null && flights.size() >= maxKeys && !purge(now)) {
+                return loader.get();
+            }
+            Flight own = new Flight();
+            boolean claimed = flight == null ? flights.putIfAbsent(key, own) == null : flights.replace(key, flight, own);
+            if (claimed) {
+                return own.run(key, loader);
+            }
+        }
+    }
+
+    /**
+     * Drops the shared result for a key, so the next read loads it again.
+     * A load already running keeps its waiters but is not handed to new callers.
+     */
+    void forget(K key) {
+        flights.remove(key);
+    }
+
+    void forgetAll() {
+        flights.clear();
+    }
+
+    int size() {
+        return flights.size();
+    }
+
+    private boolean purge(long now) {
+        flights.values().removeIf(flight -> !flight.servable(now));
+        return flights.size() < maxKeys;
+    }
+
+    private final class Flight {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        boolean servable(long now) {
+            if (!result.isDone()) {
+                return true;
+            }
+            return !result.isCompletedExceptionally() && now - completedAt < windowNanos;
+        }
+
+        V run(K key, Supplier<V> loader) {
+            V value;
+            try {
+                value = loader.get();
+            } catch (RuntimeException | Error e) {
+                flights.remove(key, this);
+                result.completeExceptionally(e);
+                throw e;
+            }
+            completedAt = System.nanoTime();
+            result.complete(value);
+            if (windowNanos <= 0) {
+                flights.remove(key, this);
+            }
+            return value;
+        }
+
+        V await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
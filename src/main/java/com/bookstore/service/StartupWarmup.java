@@ -0,0 +1,174 @@
+package com.bookstore.service;
+
+import com.bookstore.service.HotKeys.Snapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the second-level and query caches, the read paths behind them and the
+ * JIT before the application reports itself ready. The keys are the books,
+ * genres and authors clients read most in the previous run, saved to
+ * {@code bookstore.warmup.file} on shutdown; each is read {@code rounds} times
+ * through the service calls the controllers make, version lookups of
+ * conditional GETs included. Application runners finish before Spring Boot
+ * switches readiness to ACCEPTING_TRAFFIC, so {@code /actuator/health/readiness}
+ * stays down until the warm-up is done.
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    @Value("${bookstore.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bookstore.warmup.file:}")
+    private String file;
+
+    @Value("${bookstore.warmup.books:1000}")
+    private int bookCount;
+
+    @Value("${bookstore.warmup.genres:20}")
+    private int genreCount;
+
+    @Value("${bookstore.warmup.authors:200}")
+    private int authorCount;
+
+    @Value("${bookstore.warmup.rounds:2}")
+    private int rounds;
+
+    @Value("${bookstore.warmup.exit:false}")
+    private boolean exitAfterWarmup;
+
+    @Autowired
+    private HotKeys hotKeys;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private Snapshot previous = Snapshot.EMPTY;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        previous = load();
+        if (enabled) {
+            Snapshot keys = previous;
+            long start = System.nanoTime();
+            try {
+                for (int round = 0; round < rounds; round++) {
+                    warm(keys);
+                }
+            } catch (RuntimeException e) {
+                // Only an optimization: a failure leaves the caches cold but must not keep the application down
+                log.warn("Warm-up stopped early", e);
+            }
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("bookstore.startup.warmup")
+                    .description("Time spent warming caches before reporting readiness")
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Warmed up {} books, {} genres and {} authors in {} ms", keys.books().size(),
+                    keys.genres().size(), keys.authors().size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        if (exitAfterWarmup) {
+            // Training runs for a class data sharing archive: the JVM writes the archive as it exits
+            log.info("Exiting after warm-up as bookstore.warmup.exit is set");
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    private void warm(Snapshot keys) {
+        for (Long id : keys.books()) {
+            bookService.getBookVersion(id);
+            bookService.getBookById(id);
+        }
+        for (String genre : keys.genres()) {
+            bookService.getBooksByGenre(genre);
+        }
+        for (Long id : keys.authors()) {
+            authorService.getAuthorVersion(id);
+            authorService.getAuthorById(id);
+        }
+    }
+
+    private Snapshot load() {
+        if (file.isBlank() || !Files.exists(Path.of(file))) {
+            return Snapshot.EMPTY;
+        }
+        try {
+            Snapshot saved = objectMapper.readValue(Path.of(file).toFile(), Snapshot.class);
+            return new Snapshot(saved.books().stream().limit(bookCount).toList(),
+                    saved.genres().stream().limit(genreCount).toList(),
+                    saved.authors().stream().limit(authorCount).toList());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read warm-up keys from {}, starting cold", file, e);
+            return Snapshot.EMPTY;
+        }
+    }
+
+    /**
+     * Saves the most read keys of this run, followed by those of the previous
+     * runs up to the limits, so a short or idle run does not forget them.
+     */
+    @PreDestroy
+    public void save() {
+        if (file.isBlank()) {
+            return;
+        }
+        Snapshot current = hotKeys.top(bookCount, genreCount, authorCount);
+        Snapshot top = new Snapshot(merge(current.books(), previous.books(), bookCount),
+                merge(current.genres(), previous.genres(), genreCount),
+                merge(current.authors(), previous.authors(), authorCount));
+        if (top.books().isEmpty() && top.genres().isEmpty() && top.authors().isEmpty()) {
+            return;
+        }
+        Path target = Path.of(file);
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, "hot-keys", ".tmp");
+            objectMapper.writeValue(temporary.toFile(), top);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not save warm-up keys to {}", file, e);
+        }
+    }
+
+    private static <K> List<K> merge(List<K> current, List<K> previous, int limit) {
+        Set<K> merged = new LinkedHashSet<>(current);
+        merged.addAll(previous);
+        return merged.stream().limit(limit).toList();
+    }
+}
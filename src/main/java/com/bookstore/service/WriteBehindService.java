@@ -0,0 +1,409 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.AuthorDTO;
+import com.bookstore.dto.BookDTO;
+import com.bookstore.dto.WriteQueueStatsDTO;
+import com.bookstore.dto.WriteStatusDTO;
+import com.bookstore.dto.WriteStatusDTO.State;
+import com.bookstore.model.Author;
+import com.bookstore.model.Book;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind for book and author updates. Updates wait in a bounded queue
+ * keyed by entity, where a newer update to the same entity replaces the queued
+ * one (last write wins). A single writer thread takes up to {@code batchSize}
+ * entries at a time, loads their entities with one query per type and commits
+ * them in one transaction, so the cost per update shrinks with the batch
+ * instead of paying a commit each.
+ * <p>
+ * Updates to one entity are applied in the order they were accepted: the
+ * queue holds at most one entry per entity and batches are applied one after
+ * another. Direct updates go through the same slot: they replace a queued
+ * update of their entity, wait for one being written to commit, and keep the
+ * writer away from the entity until they have committed themselves. When the
+ * queue is full, callers wait up to {@code offerTimeout} for room and are then
+ * turned away. Outcomes are kept by tracking id for the last
+ * {@code statusRetention} updates.
+ */
+@Service
+public class WriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindService.class);
+
+    @Value("${bookstore.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${bookstore.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${bookstore.write-behind.offer-timeout:1s}")
+    private Duration offerTimeout;
+
+    @Value("${bookstore.write-behind.status-retention:100000}")
+    private int statusRetention;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition batchDone = lock.newCondition();
+    private final Map<Key, Pending> queue = new LinkedHashMap<>();
+    private final Set<Key> inFlight = new HashSet<>();
+    private final Map<Key, Integer> writingThrough = new HashMap<>();
+    private Map<String, WriteStatusDTO> statuses;
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    void start() {
+        statuses = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, WriteStatusDTO> eldest) {
+                return size() > statusRetention;
+            }
+        };
+        running = true;
+        writer = new Thread(this::writeLoop, "write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting updates and applies what is still queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Queues an update of the book's details. Empty when the queue stayed full
+     * for the whole offer timeout.
+     */
+    public Optional<WriteStatusDTO> updateBook(Long id, Book bookDetails) {
+        return enqueue(new Key(EntityType.BOOK, id), bookDetails);
+    }
+
+    public Optional<WriteStatusDTO> updateAuthor(Long id, Author authorDetails) {
+        return enqueue(new Key(EntityType.AUTHOR, id), authorDetails);
+    }
+
+    /**
+     * Applies an update of the book's details right away, after any update of
+     * the same book accepted before it.
+     */
+    public Optional<BookDTO> updateBookNow(Long id, Book bookDetails) {
+        return writeThrough(new Key(EntityType.BOOK, id), () -> bookService.updateBook(id, bookDetails));
+    }
+
+    public Optional<AuthorDTO> updateAuthorNow(Long id, Author authorDetails) {
+        return writeThrough(new Key(EntityType.AUTHOR, id), () -> authorService.updateAuthor(id, authorDetails));
+    }
+
+    public Optional<WriteStatusDTO> getStatus(String trackingId) {
+        synchronized (statuses) {
+            return Optional.ofNullable(statuses.get(trackingId));
+        }
+    }
+
+    public WriteQueueStatsDTO getStats() {
+        int pending;
+        lock.lock();
+        try {
+            pending = queue.size();
+        } finally {
+            lock.unlock();
+        }
+        return new WriteQueueStatsDTO(pending, capacity, batchSize, applied.get(), superseded.get(), failed.get(),
+                batches.get());
+    }
+
+    private Optional<WriteStatusDTO> enqueue(Key key, Object details) {
+        LocalDateTime now = LocalDateTime.now();
+        String trackingId = UUID.randomUUID().toString();
+        WriteStatusDTO queued = new WriteStatusDTO(trackingId, key.type().label, key.id(), State.QUEUED, null, now,
+                null);
+        lock.lock();
+        try {
+            long remaining = offerTimeout.toNanos();
+            while (running && !queue.containsKey(key) && queue.size() >= capacity) {
+                if (remaining <= 0) {
+                    return Optional.empty();
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            if (!running) {
+                return Optional.empty();
+            }
+            Pending replaced = queue.get(key);
+            if (replaced != null) {
+                complete(replaced, State.SUPERSEDED, "Replaced by later update " + trackingId);
+                superseded.incrementAndGet();
+            }
+            queue.put(key, new Pending(key, trackingId, details, now));
+            record(queued);
+            notEmpty.signal();
+            return Optional.of(queued);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops a queued update of the key and runs the direct update once no batch
+     * holding the key is being written; the writer skips the key until the
+     * direct update is done.
+     */
+    private <T> T writeThrough(Key key, Supplier<T> update) {
+        lock.lock();
+        try {
+            Pending replaced = queue.remove(key);
+            if (replaced != null) {
+                complete(replaced, State.SUPERSEDED, "Replaced by a direct update");
+                superseded.incrementAndGet();
+                notFull.signalAll();
+            }
+            while (inFlight.contains(key)) {
+                batchDone.awaitUninterruptibly();
+            }
+            writingThrough.merge(key, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return update.get();
+        } finally {
+            lock.lock();
+            try {
+                writingThrough.computeIfPresent(key, (k, writers) -> writers == 1 ? null : writers - 1);
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch;
+        while ((batch = take()) != null) {
+            batches.incrementAndGet();
+            try {
+                flush(batch);
+            } finally {
+                lock.lock();
+                try {
+                    inFlight.clear();
+                    batchDone.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private List<Pending> take() {
+        lock.lock();
+        try {
+            while (true) {
+                List<Pending> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+                Iterator<Pending> pending = queue.values().iterator();
+                while (pending.hasNext() && batch.size() < batchSize) {
+                    Pending next = pending.next();
+                    if (!writingThrough.containsKey(next.key())) {
+                        batch.add(next);
+                        inFlight.add(next.key());
+                        pending.remove();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    notFull.signalAll();
+                    return batch;
+                }
+                if (queue.isEmpty() && !running) {
+                    return null;
+                }
+                notEmpty.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the batch in one transaction. If that fails (for example an ISBN
+     * or email another row already uses), the updates are retried one by one so
+     * only the offending ones fail. Once it has committed, a failure to refresh
+     * the indexes is only logged: the updates are in the database.
+     */
+    private void flush(List<Pending> batch) {
+        List<Runnable> afterCommit;
+        try {
+            afterCommit = transactionTemplate.execute(status -> apply(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            log.debug("Write-behind batch of {} updates failed, retrying one by one", batch.size(), e);
+            for (Pending pending : batch) {
+                flush(List.of(pending));
+            }
+            return;
+        }
+        for (Runnable callback : afterCommit) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                log.warn("Refreshing the indexes after a committed write-behind update failed", e);
+            }
+        }
+    }
+
+    private List<Runnable> apply(List<Pending> batch) {
+        Map<Long, Book> books = byId(bookService.loadBooks(ids(batch, EntityType.BOOK)), Book::getId);
+        Map<Long, Author> authors = byId(BatchLookup.load(entityManager, Author.class, ids(batch, EntityType.AUTHOR)),
+                Author::getId);
+        List<Runnable> afterCommit = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            Long id = pending.key().id();
+            if (pending.key().type() == EntityType.BOOK) {
+                Book book = books.get(id);
+                if (book == null) {
+                    afterCommit.add(() -> notFound(pending));
+                    continue;
+                }
+                BookService.copyDetails(book, (Book) pending.details());
+                afterCommit.add(() -> {
+                    applied(pending);
+                    bookService.afterUpdate(book);
+                });
+            } else {
+                Author author = authors.get(id);
+                if (author == null) {
+                    afterCommit.add(() -> notFound(pending));
+                    continue;
+                }
+                boolean nationalityChanged = AuthorService.copyDetails(author, (Author) pending.details());
+                afterCommit.add(() -> {
+                    applied(pending);
+                    authorService.afterUpdate(author, nationalityChanged);
+                });
+            }
+        }
+        entityManager.flush();
+        return afterCommit;
+    }
+
+    private static List<Long> ids(List<Pending> batch, EntityType type) {
+        return batch.stream()
+                .filter(pending -> pending.key().type() == type)
+                .map(pending -> pending.key().id())
+                .collect(Collectors.toList());
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        return entities.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private void applied(Pending pending) {
+        complete(pending, State.APPLIED, null);
+        applied.incrementAndGet();
+    }
+
+    private void notFound(Pending pending) {
+        complete(pending, State.NOT_FOUND, "No " + pending.key().type().label + " with id " + pending.key().id());
+        failed.incrementAndGet();
+    }
+
+    private void fail(Pending pending, RuntimeException e) {
+        complete(pending, State.FAILED, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        failed.incrementAndGet();
+    }
+
+    private void complete(Pending pending, State state, String message) {
+        record(new WriteStatusDTO(pending.trackingId(), pending.key().type().label, pending.key().id(), state, message,
+                pending.queuedAt(), LocalDateTime.now()));
+    }
+
+    private void record(WriteStatusDTO status) {
+        synchronized (statuses) {
+            statuses.put(status.getTrackingId(), status);
+        }
+    }
+
+    private enum EntityType {
+        BOOK("book"), AUTHOR("author");
+
+        private final String label;
+
+        EntityType(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Key(EntityType type, Long id) {
+    }
+
+    private record Pending(Key key, String trackingId, Object details, LocalDateTime queuedAt) {
+    }
+}
@@ -1,10 +1,10 @@
--- Drop tables if they exist (clean start)
-DROP TABLE IF EXISTS books;
-DROP TABLE IF EXISTS authors;
+-- Id sequences: Hibernate reserves 50 ids per call (pooled-lo), so INCREMENT BY must match allocationSize
+CREATE SEQUENCE authors_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE books_seq START WITH 1 INCREMENT BY 50;
 
 -- Create authors table
 CREATE TABLE authors (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(100) NOT NULL,
     email VARCHAR(100),
     bio VARCHAR(500),
@@ -15,7 +15,7 @@ CREATE TABLE authors (
 
 -- Create books table
 CREATE TABLE books (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     title VARCHAR(200) NOT NULL,
     isbn VARCHAR(50) NOT NULL UNIQUE,
     description VARCHAR(1000),
@@ -28,4 +28,7 @@ CREATE TABLE books (
     created_at TIMESTAMP,
     updated_at TIMESTAMP,
     FOREIGN KEY (author_id) REFERENCES authors(id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX idx_authors_updated_at ON authors(updated_at);
+CREATE INDEX idx_books_updated_at ON books(updated_at);
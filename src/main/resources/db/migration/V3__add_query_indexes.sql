@@ -0,0 +1,8 @@
+-- Indexes for the catalog filters, each one turns a full table scan into an index seek
+CREATE INDEX idx_books_genre_price ON books(genre, price);
+CREATE INDEX idx_books_price ON books(price);
+CREATE INDEX idx_books_publication_year ON books(publication_year);
+CREATE INDEX idx_books_author_title ON books(author_id, title);
+CREATE INDEX idx_books_title ON books(title);
+CREATE INDEX idx_authors_nationality ON authors(nationality);
+CREATE INDEX idx_authors_email ON authors(email);
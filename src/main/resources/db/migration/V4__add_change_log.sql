@@ -0,0 +1,14 @@
+-- Append-only log of book and author changes, one row per insert, update or delete, read by /api/changes
+CREATE TABLE change_log (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_type VARCHAR(10) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+);
+
+-- Single row locked by every writer before it appends, so change ids are handed out in commit order
+CREATE TABLE change_log_head (
+    id INT PRIMARY KEY
+);
+INSERT INTO change_log_head (id) VALUES (1);
@@ -0,0 +1,94 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.AuthorDTO;
+import com.bookstore.model.Author;
+import com.bookstore.model.Book;
+import com.bookstore.service.AuthorService;
+import com.bookstore.service.BookService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Long authorId;
+
+	@AfterEach
+	void deleteAuthor() {
+		if (authorId != null) {
+			authorService.deleteAuthor(authorId);
+		}
+	}
+
+	@Test
+	void matchingETagIsAnsweredWithoutLoadingTheBook() throws Exception {
+		String eTag = eTagOf("/api/books/3");
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(get("/api/books/3").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag))
+				.andExpect(content().string(""));
+		assertEquals(0, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void authorUpdateChangesBookAndCatalogETags() throws Exception {
+		AuthorDTO author = authorService.createAuthor(new Author("ETag Test Author", "etag.test@example.com",
+				"Writes books for tests", "Canadian"));
+		authorId = author.getId();
+		String book = "/api/books/" + bookService.createBook(new Book("ETag Test Book", "9780000000902",
+				"A book for tests", 2024, new BigDecimal("9.99"), "Fantasy", 100, "Test Press"), authorId).getId();
+
+		String bookETag = eTagOf(book);
+		String catalogETag = eTagOf("/api/books?page=0&size=5");
+		mockMvc.perform(get("/api/books?page=0&size=5").header(HttpHeaders.IF_NONE_MATCH, catalogETag))
+				.andExpect(status().isNotModified());
+
+		authorService.updateAuthor(authorId, new Author(author.getName(), author.getEmail(),
+				author.getBio() + ".", author.getNationality()));
+
+		mockMvc.perform(get(book).header(HttpHeaders.IF_NONE_MATCH, bookETag))
+				.andExpect(status().isOk());
+		assertNotEquals(bookETag, eTagOf(book));
+		assertNotEquals(catalogETag, eTagOf("/api/books?page=0&size=5"));
+	}
+
+	private String eTagOf(String url) throws Exception {
+		return mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+}
@@ -0,0 +1,62 @@
+package com.bookstore.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SparseFieldsTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void listingsWriteOnlyTheRequestedFields() throws Exception {
+		JsonNode page = fetch("/api/books?size=3&sortBy=id&fields=title,price,authorName");
+		JsonNode full = fetch("/api/books?size=3&sortBy=id");
+		for (int i = 0; i < 3; i++) {
+			JsonNode book = page.get("content").get(i);
+			assertEquals(Set.of("id", "title", "price", "authorName"), names(book));
+			assertEquals(full.get("content").get(i).get("authorName"), book.get("authorName"));
+		}
+
+		JsonNode authors = fetch("/api/authors/nationality/British?fields=name");
+		assertFalse(authors.isEmpty());
+		for (JsonNode author : authors) {
+			assertEquals(Set.of("id", "name"), names(author));
+		}
+
+		assertEquals(13, names(full.get("content").get(0)).size());
+		mockMvc.perform(get("/api/books/genre/Fantasy?fields=title,summary"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private JsonNode fetch(String url) throws Exception {
+		return objectMapper.readTree(mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+	}
+
+	private static Set<String> names(JsonNode node) {
+		List<String> names = new ArrayList<>();
+		node.fieldNames().forEachRemaining(names::add);
+		return Set.copyOf(names);
+	}
+}
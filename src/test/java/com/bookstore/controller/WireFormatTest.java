@@ -0,0 +1,83 @@
+package com.bookstore.controller;
+
+import com.bookstore.config.WireFormatConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class WireFormatTest {
+
+	private static final String PAGE = "/api/books?page=0&size=5&sortBy=id";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void cborAndColumnarPagesCarryTheSameBooksAsJson() throws Exception {
+		MockHttpServletResponse json = fetch(PAGE, MediaType.APPLICATION_JSON_VALUE);
+		MockHttpServletResponse cbor = fetch(PAGE, MediaType.APPLICATION_CBOR_VALUE);
+		MockHttpServletResponse columns = fetch(PAGE, WireFormatConfig.COLUMNAR_JSON_VALUE);
+
+		JsonNode books = objectMapper.readTree(json.getContentAsByteArray());
+		JsonNode binary = new ObjectMapper(new CBORFactory()).readTree(cbor.getContentAsByteArray());
+		assertEquals(books.get("content").findValues("title"), binary.get("content").findValues("title"));
+		assertEquals(books.get("content").findValues("createdAt"), binary.get("content").findValues("createdAt"));
+
+		JsonNode columnar = objectMapper.readTree(columns.getContentAsByteArray());
+		assertEquals(books.get("totalElements"), columnar.get("totalElements"));
+		for (int i = 0; i < 5; i++) {
+			JsonNode book = books.get("content").get(i);
+			assertEquals(book.get("id"), columnar.get("id").get(i));
+			assertEquals(book.get("title"), columnar.get("title").get(i));
+			assertEquals(book.get("price").decimalValue().movePointRight(2).longValueExact(),
+					columnar.get("priceCents").get(i).longValue());
+		}
+
+		assertNotEquals(json.getHeader(HttpHeaders.ETAG), cbor.getHeader(HttpHeaders.ETAG));
+		assertNotEquals(json.getHeader(HttpHeaders.ETAG), columns.getHeader(HttpHeaders.ETAG));
+		mockMvc.perform(get(PAGE).accept(MediaType.APPLICATION_CBOR)
+						.header(HttpHeaders.IF_NONE_MATCH, json.getHeader(HttpHeaders.ETAG)))
+				.andExpect(status().isOk());
+		mockMvc.perform(get(PAGE).accept(MediaType.APPLICATION_CBOR)
+						.header(HttpHeaders.IF_NONE_MATCH, cbor.getHeader(HttpHeaders.ETAG)))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void columnarPagesRejectBadQueriesLikeJson() throws Exception {
+		for (String accept : new String[] {WireFormatConfig.COLUMNAR_JSON_VALUE, WireFormatConfig.COLUMNAR_CBOR_VALUE}) {
+			mockMvc.perform(get("/api/books?sortBy=noSuchProperty").header(HttpHeaders.ACCEPT, accept))
+					.andExpect(status().isBadRequest());
+			mockMvc.perform(get("/api/books?page=-1").header(HttpHeaders.ACCEPT, accept))
+					.andExpect(status().isBadRequest());
+		}
+	}
+
+	private MockHttpServletResponse fetch(String url, String accept) throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT, accept))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(accept))
+				.andReturn().getResponse();
+		assertEquals(HttpHeaders.ACCEPT, response.getHeader(HttpHeaders.VARY));
+		return response;
+	}
+}
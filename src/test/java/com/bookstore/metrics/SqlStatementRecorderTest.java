@@ -0,0 +1,69 @@
+package com.bookstore.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlStatementRecorderTest {
+
+	@Test
+	void fingerprintCollapsesLiteralsAndParameterLists() {
+		assertEquals("select b1_0.id from books b1_0 where b1_0.id in(?+) and b1_0.genre=? and b1_0.price>?",
+				SqlStatementRecorder.fingerprint("select b1_0.id from books b1_0\n    where b1_0.id in(?,?, ?)"
+						+ " and b1_0.genre='Fantasy' and b1_0.price>10.5"));
+	}
+
+	@Test
+	void countsStatementsPerFingerprint() {
+		SqlStatementRecorder recorder = new SqlStatementRecorder();
+		SqlStatementRecorder.RequestStatements statements = SqlStatementRecorder.begin();
+		try {
+			recorder.inspect("select * from authors where id=?");
+			recorder.inspect("select * from authors where id=?");
+			recorder.inspect("select * from books where id in (?,?)");
+			recorder.inspect("select * from books where id in (?,?,?)");
+		} finally {
+			SqlStatementRecorder.end();
+		}
+		recorder.inspect("select 1");
+
+		assertEquals(4, statements.count());
+		assertEquals("\n  2 x select * from authors where id=?\n  2 x select * from books where id in (?+)",
+				statements.summary());
+	}
+
+	@Test
+	void countsStatementsOfAsyncProcessingWithItsRequest() throws Exception {
+		SqlStatementRecorder recorder = new SqlStatementRecorder();
+		SqlStatementAsyncInterceptor interceptor = new SqlStatementAsyncInterceptor();
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+		SqlStatementRecorder.RequestStatements statements = SqlStatementRecorder.begin();
+		servletRequest.setAttribute(SqlStatementRecorder.REQUEST_ATTRIBUTE, statements);
+		SqlStatementRecorder.end();
+
+		NativeWebRequest request = new ServletWebRequest(servletRequest);
+		Callable<Object> task = () -> recorder.inspect("select * from books");
+		Thread asyncThread = new Thread(() -> {
+			interceptor.preProcess(request, task);
+			try {
+				task.call();
+				task.call();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			} finally {
+				interceptor.postProcess(request, task, null);
+			}
+			recorder.inspect("select 1");
+		});
+		asyncThread.start();
+		asyncThread.join();
+
+		assertEquals(2, statements.count());
+		assertEquals("\n  2 x select * from books", statements.summary());
+	}
+}
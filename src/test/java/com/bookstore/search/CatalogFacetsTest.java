@@ -0,0 +1,61 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.BookFacetsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogFacetsTest {
+
+	@Test
+	void genreAndPriceRangeCountsIgnoreTheirOwnFilter() {
+		CatalogFacets facets = catalog();
+
+		BookFacetsDTO result = facets.count("Fantasy", new BigDecimal("10"), new BigDecimal("25"));
+
+		assertEquals(2, result.getTotal());
+		assertEquals(Map.of("Fantasy", 2L, "Mystery", 1L), result.getGenres());
+		assertEquals(List.of(0L, 2L, 0L, 1L, 0L, 0L), List.copyOf(result.getPriceRanges().values()));
+		assertEquals(Map.of("1990s", 1L, "1930s", 1L), result.getDecades());
+		assertEquals(Map.of("British", 2L), result.getNationalities());
+	}
+
+	@Test
+	void countsOnlyTheGivenBooks() {
+		CatalogFacets facets = catalog();
+
+		BookFacetsDTO result = facets.count(List.of(1L, 4L, 99L), null, null, null);
+
+		assertEquals(2, result.getTotal());
+		assertEquals(Map.of("Fantasy", 1L, "Mystery", 1L), result.getGenres());
+		assertEquals(Map.of("British", 2L), result.getNationalities());
+	}
+
+	@Test
+	void reflectsUpdatesRemovalsAndNationalityChanges() {
+		CatalogFacets facets = catalog();
+		facets.put(2L, "Mystery", new BigDecimal("60.00"), 1996, "American");
+		facets.remove(3L);
+		facets.setNationality(List.of(1L), "Scottish");
+
+		BookFacetsDTO result = facets.count(null, null, null);
+
+		assertEquals(3, result.getTotal());
+		assertEquals(Map.of("Mystery", 2L, "Fantasy", 1L), result.getGenres());
+		assertEquals(List.of(0L, 2L, 0L, 0L, 1L, 0L), List.copyOf(result.getPriceRanges().values()));
+		assertEquals(Map.of("American", 1L, "British", 1L, "Scottish", 1L), result.getNationalities());
+	}
+
+	private static CatalogFacets catalog() {
+		CatalogFacets facets = new CatalogFacets();
+		facets.put(1L, "Fantasy", new BigDecimal("19.99"), 1997, "British");
+		facets.put(2L, "Fantasy", new BigDecimal("34.99"), 1996, "American");
+		facets.put(3L, "Fantasy", new BigDecimal("15.99"), 1937, "British");
+		facets.put(4L, "Mystery", new BigDecimal("12.99"), 1934, "British");
+		return facets;
+	}
+}
@@ -0,0 +1,104 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.BookDTO;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.BookSpecifications;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CatalogSnapshotTest {
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Test
+	void answersLikeTheDatabase() {
+		CatalogSnapshot snapshot = new CatalogSnapshot();
+		List<BookDTO> books = bookRepository.findAllDTOs();
+		books.forEach(snapshot::put);
+		String genre = books.get(0).getGenre();
+		BigDecimal min = new BigDecimal("10.00");
+		BigDecimal max = new BigDecimal("15.99");
+
+		assertEquals(rows(byId(bookRepository.findByGenre(genre))), rows(byId(snapshot.findByGenre(genre))));
+		assertEquals(rows(byId(bookRepository.findByPriceBetween(min, max))),
+				rows(byId(snapshot.findByPriceBetween(min, max))));
+
+		for (Sort sort : List.of(Sort.by("title"), Sort.by(Sort.Direction.DESC, "price"),
+				Sort.by("publicationYear").and(Sort.by(Sort.Direction.DESC, "createdAt")))) {
+			for (int page = 0; page < 3; page++) {
+				// The database leaves ties in no particular order
+				Pageable pageable = PageRequest.of(page, 4, sort.and(Sort.by("id")));
+				Page<BookDTO> expected = bookRepository.findDTOs(BookSpecifications.withFilters(null, min, null), pageable);
+				Page<BookDTO> actual = snapshot.find(null, null, min, null, pageable).orElseThrow();
+				assertEquals(expected.getTotalElements(), actual.getTotalElements());
+				assertEquals(rows(expected.getContent()), rows(actual.getContent()));
+			}
+		}
+	}
+
+	@Test
+	void removingABookKeepsTheOthersAndUnknownSortsFallBack() {
+		CatalogSnapshot snapshot = new CatalogSnapshot();
+		List<BookDTO> books = bookRepository.findAllDTOs();
+		books.forEach(snapshot::put);
+
+		snapshot.remove(books.get(0).getId());
+
+		Page<BookDTO> rest = snapshot.find(null, null, null, null, PageRequest.of(0, 100, Sort.by("id"))).orElseThrow();
+		assertEquals(rows(byId(books.subList(1, books.size()))), rows(rest.getContent()));
+		assertTrue(snapshot.find(null, null, null, null, PageRequest.of(0, 5, Sort.by("authorName"))).isEmpty());
+	}
+
+	@Test
+	void parallelSegmentsAnswerLikeOneScan() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			CatalogSnapshot sequential = new CatalogSnapshot();
+			CatalogSnapshot parallel = new CatalogSnapshot(pool, 0);
+			List<BookDTO> books = bookRepository.findAllDTOs();
+			books.forEach(sequential::put);
+			books.forEach(parallel::put);
+			String genre = books.get(0).getGenre();
+
+			assertEquals(rows(sequential.findByGenre(genre)), rows(parallel.findByGenre(genre)));
+			assertEquals(rows(sequential.findByPriceBetween(BigDecimal.ZERO, BigDecimal.TEN.pow(3))),
+					rows(parallel.findByPriceBetween(BigDecimal.ZERO, BigDecimal.TEN.pow(3))));
+			for (Pageable pageable : List.of(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "price")),
+					PageRequest.of(1, 2, Sort.by("title")), Pageable.unpaged())) {
+				Page<BookDTO> expected = sequential.find(null, null, null, null, pageable).orElseThrow();
+				Page<BookDTO> actual = parallel.find(null, null, null, null, pageable).orElseThrow();
+				assertEquals(expected.getTotalElements(), actual.getTotalElements());
+				assertEquals(rows(expected.getContent()), rows(actual.getContent()));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static List<BookDTO> byId(List<BookDTO> books) {
+		return books.stream().sorted(Comparator.comparing(BookDTO::getId)).toList();
+	}
+
+	private static List<List<Object>> rows(List<BookDTO> books) {
+		return books.stream()
+				.map(book -> Arrays.<Object>asList(book.getId(), book.getTitle(), book.getPrice(), book.getGenre(),
+						book.getPublicationYear(), book.getCreatedAt(), book.getAuthorName()))
+				.toList();
+	}
+}
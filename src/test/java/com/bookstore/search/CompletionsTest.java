@@ -0,0 +1,66 @@
+package com.bookstore.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompletionsTest {
+
+	@Test
+	void completesWordStartsByWeight() {
+		Completions completions = new Completions(Long.MAX_VALUE);
+		completions.replaceAll(List.of(
+				new Completions.Completion(1, "The Lord of the Rings", 1),
+				new Completions.Completion(2, "Lords and Ladies", 1),
+				new Completions.Completion(3, "Lord Dunsany", 5),
+				new Completions.Completion(4, "Émile Zola", 2),
+				new Completions.Completion(5, "A Game of Thrones", 1)));
+
+		assertEquals(List.of(3L, 2L, 1L), keys(completions.complete("lord", 10)));
+		assertEquals(List.of(1L), keys(completions.complete("LORD OF", 10)));
+		assertEquals(List.of(4L), keys(completions.complete("emi", 10)));
+		assertEquals(List.of(3L), keys(completions.complete("l", 1)));
+		assertTrue(completions.complete("throne x", 10).isEmpty());
+	}
+
+	@Test
+	void answersTheSameBeforeAndAfterBufferedWritesAreMerged() {
+		Completions completions = new Completions(Long.MAX_VALUE);
+		completions.replaceAll(List.of(new Completions.Completion(0, "Title 0", 1)));
+		for (long key = 1; key < 5000; key++) {
+			completions.put(key, "Title " + key, key % 7);
+			if (key == 3000) {
+				completions.relabel(7, "Renamed");
+				completions.adjustWeight(14, 100);
+				completions.remove(21);
+			}
+		}
+
+		assertEquals(List.of(14L, 6L, 13L), keys(completions.complete("title", 3)));
+		assertEquals(List.of(7L), keys(completions.complete("renamed", 10)));
+		assertTrue(completions.complete("title 21", 10).stream().noneMatch(completion -> completion.key() == 21));
+		assertEquals(4999, completions.size());
+	}
+
+	@Test
+	void dropsTheLowestWeightsOverTheMemoryBudget() {
+		Completions completions = new Completions(600);
+		completions.replaceAll(List.of(
+				new Completions.Completion(1, "Heavy", 10),
+				new Completions.Completion(2, "Light", 1),
+				new Completions.Completion(3, "Middle", 5)));
+
+		assertEquals(2, completions.size());
+		assertEquals(1, completions.dropped());
+		assertTrue(completions.estimatedBytes() <= 600);
+		assertTrue(completions.complete("light", 10).isEmpty());
+		assertEquals(List.of(3L), keys(completions.complete("mid", 10)));
+	}
+
+	private static List<Long> keys(List<Completions.Completion> completions) {
+		return completions.stream().map(Completions.Completion::key).toList();
+	}
+}
@@ -0,0 +1,62 @@
+package com.bookstore.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextIndexTest {
+
+	@Test
+	void ranksExactThenPrefixThenWordThenSubstringMatches() {
+		TextIndex index = new TextIndex();
+		index.put(1L, "The Hobbit");
+		index.put(2L, "Hobbit");
+		index.put(3L, "Hobbits of the Shire");
+		index.put(4L, "Thehobbit Collection");
+		index.put(5L, "A Game of Thrones");
+
+		assertEquals(List.of(2L, 3L, 1L, 4L), index.search("hobbit"));
+	}
+
+	@Test
+	void matchesShortQueriesAndIgnoresCaseAndAccents() {
+		TextIndex index = new TextIndex();
+		index.put(1L, "Les Misérables");
+		index.put(2L, "Murder on the Orient Express");
+
+		assertEquals(List.of(1L), index.search("MISERABLES"));
+		assertEquals(List.of(2L), index.search("ex"));
+	}
+
+	@Test
+	void reflectsUpdatesAndRemovals() {
+		TextIndex index = new TextIndex();
+		index.put(1L, "A Clash of Kings");
+		index.put(1L, "A Storm of Swords");
+		index.put(2L, "A Feast for Crows");
+		index.remove(2L);
+
+		assertTrue(index.search("kings").isEmpty());
+		assertEquals(List.of(1L), index.search("storm"));
+		assertTrue(index.search("crows").isEmpty());
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void findsMisspeltNamesAfterSubstringMatches() {
+		TextIndex index = new TextIndex();
+		index.put(1L, "J.R.R. Tolkien");
+		index.put(2L, "Christopher Tolkien");
+		index.put(3L, "Leo Tolstoy");
+		index.put(4L, "Gabriel García Márquez");
+		index.put(5L, "Tolkein Society");
+
+		assertEquals(List.of(5L, 1L, 2L), index.searchSimilar("tolkein", 0.4));
+		assertEquals(List.of(4L), index.searchSimilar("GARCIA MARQUES", 0.4));
+		assertEquals(List.of(1L, 2L, 5L), index.searchSimilar("tolkien", 0.4));
+		assertTrue(index.searchSimilar("dostoevsky", 0.4).isEmpty());
+	}
+}
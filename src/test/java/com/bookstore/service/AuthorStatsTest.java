@@ -0,0 +1,60 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.AuthorDTO;
+import com.bookstore.dto.BookDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class AuthorStatsTest {
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void statsForAPageCostOneStatement() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		for (int size : new int[]{2, 10}) {
+			Page<AuthorDTO> authors = authorService.getAllAuthors(PageRequest.of(0, size, Sort.by("name")));
+			statistics.clear();
+			authorService.withBookStats(authors);
+			assertEquals(1, statistics.getPrepareStatementCount());
+		}
+	}
+
+	@Test
+	void statsMatchTheAuthorsBooks() {
+		Page<AuthorDTO> authors = authorService.withBookStats(
+				authorService.getAllAuthors(PageRequest.of(0, 10, Sort.by("name"))));
+		for (AuthorDTO author : authors) {
+			List<BookDTO> books = bookService.getBooksByAuthor(author.getId());
+			List<BigDecimal> prices = books.stream().map(BookDTO::getPrice).filter(Objects::nonNull).toList();
+			assertEquals(books.size(), author.getStats().getBookCount());
+			assertEquals(prices.isEmpty() ? null : prices.stream().reduce(BigDecimal.ZERO, BigDecimal::add)
+							.divide(BigDecimal.valueOf(prices.size()), 2, RoundingMode.HALF_UP),
+					author.getStats().getAveragePrice());
+			assertEquals(books.stream().map(BookDTO::getPublicationYear).filter(Objects::nonNull)
+					.max(Integer::compare).orElse(null), author.getStats().getLatestPublicationYear());
+		}
+	}
+}
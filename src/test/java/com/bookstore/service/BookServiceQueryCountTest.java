@@ -0,0 +1,136 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.BatchLookupResult;
+import com.bookstore.dto.BookDTO;
+import com.bookstore.dto.CursorPage;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookServiceQueryCountTest {
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void resetStatistics() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		sessionFactory.getCache().evictAllRegions();
+		statistics = sessionFactory.getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void pageOfBooksLoadsAuthorsInTheSameStatement() {
+		assertFalse(bookService.getAllBooks(PageRequest.of(0, 100, Sort.by("title"))).isEmpty());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void cursorPageOfBooksLoadsAuthorsInTheSameStatement() {
+		assertFalse(bookService.getAllBooks("", 100, Sort.by("title")).getContent().isEmpty());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void followingCursorsReadsTheSameBooksAsOffsetPages() {
+		assertEquals(idsOfOffsetPages(Sort.by("title", "id")), idsOfCursorPages(Sort.by("title")));
+		assertEquals(idsOfOffsetPages(Sort.by(Sort.Direction.DESC, "publicationYear", "id")),
+				idsOfCursorPages(Sort.by(Sort.Direction.DESC, "publicationYear")));
+	}
+
+	@Test
+	void cursorPagesNeedASizeOfOneOrMore() {
+		assertThrows(IllegalArgumentException.class, () -> bookService.getAllBooks("", 0, Sort.by("title")));
+		assertThrows(IllegalArgumentException.class,
+				() -> bookService.getAllBooks("", Integer.MAX_VALUE, Sort.by("title")));
+	}
+
+	@Test
+	void genreListingIsASingleStatement() {
+		assertFalse(bookService.getBooksByGenre("Fantasy").isEmpty());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void priceRangeListingIsASingleStatement() {
+		assertFalse(bookService.getBooksByPriceRange(BigDecimal.ZERO, new BigDecimal("100")).isEmpty());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void titleSearchFetchesMatchesInASingleStatement() {
+		assertFalse(bookService.searchBooksByTitle("harry").isEmpty());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void filteredPageIsASingleStatement() {
+		assertFalse(bookService.searchBooksWithFilters(null, "Fantasy", new BigDecimal("10"), null,
+				PageRequest.of(0, 100, Sort.by("title"))).isEmpty());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void filteredCursorPageOnlyContainsMatchingBooks() {
+		List<BookDTO> books = bookService.searchBooksWithFilters(null, "Fantasy", null, new BigDecimal("20"), "", 100,
+				Sort.by("title")).getContent();
+		assertFalse(books.isEmpty());
+		assertTrue(books.stream().allMatch(book -> book.getGenre().equals("Fantasy")
+				&& book.getPrice().compareTo(new BigDecimal("20")) <= 0));
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void batchByIdsKeepsRequestOrderAndReadsMissesInASingleStatement() {
+		BatchLookupResult<BookDTO, Long> result = bookService.getBooksByIds(List.of(3L, 999_999L, 1L, 3L));
+		assertEquals(List.of(3L, 1L), result.getItems().stream().map(BookDTO::getId).collect(Collectors.toList()));
+		assertTrue(result.getItems().stream().allMatch(book -> book.getAuthorName() != null));
+		assertEquals(List.of(999_999L), result.getMissing());
+		assertEquals(1, statistics.getPrepareStatementCount());
+
+		statistics.clear();
+		assertTrue(bookService.getBookById(1L).isPresent());
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	private List<Long> idsOfOffsetPages(Sort sort) {
+		return bookService.getAllBooks(PageRequest.of(0, 1000, sort)).getContent().stream()
+				.map(BookDTO::getId)
+				.collect(Collectors.toList());
+	}
+
+	private List<Long> idsOfCursorPages(Sort sort) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = "";
+		CursorPage<BookDTO> page;
+		do {
+			page = bookService.getAllBooks(cursor, 3, sort);
+			page.getContent().forEach(book -> ids.add(book.getId()));
+			cursor = page.getNextCursor();
+		} while (page.isHasNext());
+		return ids;
+	}
+}
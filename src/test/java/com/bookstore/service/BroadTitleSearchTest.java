@@ -0,0 +1,98 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.BookDTO;
+import com.bookstore.dto.CursorPage;
+import com.bookstore.search.BookSearchIndex;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Title searches matching more books than a statement takes parameters
+ * (H2 accepts 100,000).
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BroadTitleSearchTest {
+
+	private static final long FIRST_ID = 50_000_000;
+	private static final int BOOKS = 100_100;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookSearchIndex bookSearchIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void insertBooks() {
+		List<Object[]> rows = new ArrayList<>(BOOKS);
+		for (int i = 0; i < BOOKS; i++) {
+			rows.add(new Object[]{FIRST_ID + i, "Overflow Title " + i, "OVERFLOW-" + i, i % 2 == 0 ? "Mystery" : "Horror"});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO books (id, title, isbn, publication_year, genre) VALUES (?, ?, ?, 2000, ?)",
+				rows);
+		bookSearchIndex.rebuild();
+	}
+
+	@AfterAll
+	void deleteBooks() {
+		jdbcTemplate.update("DELETE FROM books WHERE id >= ?", FIRST_ID);
+		bookSearchIndex.rebuild();
+	}
+
+	@Test
+	void pagesThroughAllMatches() {
+		Page<BookDTO> page = bookService.searchBooksWithFilters("overflow", null, null, null,
+				PageRequest.of(2, 20, Sort.by("id")));
+
+		assertEquals(BOOKS, page.getTotalElements());
+		assertEquals(LongStream.range(FIRST_ID + 40, FIRST_ID + 60).boxed().toList(),
+				page.getContent().stream().map(BookDTO::getId).toList());
+	}
+
+	@Test
+	void appliesTheOtherFiltersAndFields() {
+		Page<BookDTO> page = bookService.searchBooksWithFilters("overflow", "Mystery", null, null,
+				PageRequest.of(0, 5, Sort.by("id")), Set.of("title"));
+
+		assertEquals(BOOKS / 2, page.getTotalElements());
+		assertEquals(List.of("Overflow Title 0", "Overflow Title 2", "Overflow Title 4", "Overflow Title 6",
+				"Overflow Title 8"), page.getContent().stream().map(BookDTO::getTitle).toList());
+	}
+
+	@Test
+	void followsCursors() {
+		CursorPage<BookDTO> first = bookService.searchBooksWithFilters("overflow", null, null, null, "", 10,
+				Sort.by("id"));
+		CursorPage<BookDTO> second = bookService.searchBooksWithFilters("overflow", null, null, null,
+				first.getNextCursor(), 10, Sort.by("id"));
+
+		assertTrue(first.isHasNext());
+		assertEquals(FIRST_ID + 10, second.getContent().get(0).getId());
+		assertEquals(10, second.getContent().size());
+	}
+
+	@Test
+	void listsEveryMatch() {
+		assertEquals(BOOKS, bookService.searchBooksByTitle("overflow").size());
+	}
+}
@@ -0,0 +1,107 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.BulkImportError;
+import com.bookstore.dto.BulkImportResult;
+import com.bookstore.model.Author;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BulkImportServiceTest {
+
+	@Autowired
+	private BulkImportService bulkImportService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@AfterEach
+	void deleteImportedRows() {
+		bookRepository.findByIsbnIn(List.of("IMPORT-1", "IMPORT-4", "IMPORT-6"))
+				.forEach(book -> bookService.deleteBook(book.getId()));
+		for (String email : List.of("csv.one@email.com", "csv.three@email.com", "csv.five@email.com",
+				"csv.six@email.com")) {
+			authorRepository.findByEmail(email).map(Author::getId).ifPresent(authorService::deleteAuthor);
+		}
+	}
+
+	@Test
+	void importsValidNdjsonRowsAndReportsRejectedOnes() throws Exception {
+		String ndjson = """
+				{"title":"Import Test One","isbn":"IMPORT-1","publicationYear":2001,"genre":"Import","authorId":1}
+				{"title":"Import Test Two","isbn":"IMPORT-1","publicationYear":2002,"genre":"Import","authorId":1}
+				{"title":"Import Test Three","isbn":"9780547928227","publicationYear":2003,"genre":"Import","authorId":1}
+				{"title":"Import Test Four","isbn":"IMPORT-4","publicationYear":2004,"genre":"Import","authorId":999}
+				not json
+				{"title":"Import Test Six","isbn":"IMPORT-6","publicationYear":2006,"genre":"Import","authorId":2}
+				""";
+
+		BulkImportResult result = bulkImportService.importBooks(stream(ndjson), MediaType.APPLICATION_NDJSON);
+
+		assertEquals(6, result.getReceived());
+		assertEquals(2, result.getImported());
+		assertEquals(List.of(2L, 3L, 4L, 5L), result.getErrors().stream().map(BulkImportError::getLine).toList());
+		assertEquals(2, bookService.searchBooksByTitle("import test").size());
+	}
+
+	@Test
+	void importsCsvWithHeader() throws Exception {
+		String csv = """
+				name,email,nationality
+				Csv Author One,csv.one@email.com,Irish
+				Csv Author Two,not-an-email,Irish
+				""";
+
+		BulkImportResult result = bulkImportService.importAuthors(stream(csv), MediaType.parseMediaType("text/csv"));
+
+		assertEquals(1, result.getImported());
+		assertEquals(1, result.getFailed());
+		assertEquals(3L, result.getErrors().get(0).getLine());
+		assertFalse(result.isAborted());
+	}
+
+	@Test
+	void keepsRowsBeforeAnUnreadableCsvRecord() {
+		String csv = """
+				name,email,bio,nationality
+
+				Csv Author Three,csv.three@email.com,"Born in Cork,
+				wrote poems",Irish
+				Csv Author Four,not-an-email,,Irish
+				"Csv Author Five,csv.five@email.com,,Irish
+				Csv Author Six,csv.six@email.com,,Irish
+				""";
+
+		BulkImportResult result = bulkImportService.importAuthors(stream(csv), MediaType.parseMediaType("text/csv"));
+
+		assertTrue(result.isAborted());
+		assertEquals(1, result.getImported());
+		assertEquals(List.of(5L, 6L), result.getErrors().stream().map(BulkImportError::getLine).toList());
+	}
+
+	private static ByteArrayInputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
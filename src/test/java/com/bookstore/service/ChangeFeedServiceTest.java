@@ -0,0 +1,85 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.AuthorDTO;
+import com.bookstore.dto.BookDTO;
+import com.bookstore.dto.ChangeDTO;
+import com.bookstore.dto.CursorPage;
+import com.bookstore.model.Author;
+import com.bookstore.model.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ChangeFeedServiceTest {
+
+	@Autowired
+	private ChangeFeedService changeFeedService;
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void followsWritesInOrderWithTombstones() {
+		String head = changeFeedService.getChanges(null, 10).getNextCursor();
+		AuthorDTO author = authorService.createAuthor(new Author("Feed Author", "feed@example.com", null, "British"));
+		BookDTO book = bookService.createBook(book("Feed Book", "FEED-1"), author.getId());
+		bookService.updateBook(book.getId(), book("Feed Book, Revised", "FEED-1"));
+		authorService.deleteAuthor(author.getId());
+
+		List<ChangeDTO> changes = readAll(head);
+		assertEquals(List.of("author UPSERT", "book UPSERT", "book UPSERT", "book DELETE", "author DELETE"),
+				changes.stream().map(change -> change.getEntityType() + " " + change.getOperation()).toList());
+		for (int i = 1; i < changes.size(); i++) {
+			assertTrue(changes.get(i).getSequence() > changes.get(i - 1).getSequence());
+		}
+		// Upserts carry the current state, which is gone once the author and their books are deleted
+		assertNull(changes.get(2).getBook());
+		assertEquals(book.getId(), changes.get(3).getEntityId());
+	}
+
+	@Test
+	void rolledBackWritesLeaveNoChanges() {
+		String head = changeFeedService.getChanges(null, 10).getNextCursor();
+		transactionTemplate.executeWithoutResult(status -> {
+			authorService.createAuthor(new Author("Rolled Back", "rollback@example.com", null, null));
+			status.setRollbackOnly();
+		});
+
+		assertTrue(readAll(head).isEmpty());
+		CursorPage<ChangeDTO> page = changeFeedService.getChanges(head, 10);
+		assertFalse(page.isHasNext());
+		assertEquals(head, page.getNextCursor());
+	}
+
+	private List<ChangeDTO> readAll(String cursor) {
+		List<ChangeDTO> changes = new ArrayList<>();
+		CursorPage<ChangeDTO> page;
+		do {
+			page = changeFeedService.getChanges(cursor, 2);
+			changes.addAll(page.getContent());
+			cursor = page.getNextCursor();
+		} while (page.isHasNext());
+		return changes;
+	}
+
+	private static Book book(String title, String isbn) {
+		return new Book(title, isbn, null, 2020, new BigDecimal("10.00"), "Mystery", 300, "Feed Press");
+	}
+}
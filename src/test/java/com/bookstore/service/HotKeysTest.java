@@ -0,0 +1,56 @@
+package com.bookstore.service;
+
+import com.bookstore.service.HotKeys.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HotKeysTest {
+
+	@Test
+	void mostReadKeysComeFirst() {
+		HotKeys hotKeys = new HotKeys(100);
+		for (long id : new long[]{3, 1, 3, 2, 3, 1}) {
+			hotKeys.book(id);
+		}
+		hotKeys.genre("Fantasy");
+		hotKeys.author(7L);
+
+		Snapshot top = hotKeys.top(2, 10, 10);
+		assertEquals(List.of(3L, 1L), top.books());
+		assertEquals(List.of("Fantasy"), top.genres());
+		assertEquals(List.of(7L), top.authors());
+	}
+
+	@Test
+	void newKeysReplaceTheLeastReadOneWhenFull() {
+		HotKeys hotKeys = new HotKeys(2);
+		hotKeys.book(1L);
+		hotKeys.book(2L);
+		hotKeys.book(3L);
+		hotKeys.book(3L);
+		hotKeys.book(2L);
+
+		assertEquals(List.of(3L, 2L), hotKeys.top(10, 10, 10).books());
+	}
+
+	@Test
+	void aKeyThatTurnsHotLateOvertakesTheEarlyOnes() {
+		HotKeys hotKeys = new HotKeys(3);
+		for (int i = 0; i < 50; i++) {
+			hotKeys.book(1L);
+			hotKeys.book(2L);
+			hotKeys.book(3L);
+		}
+		for (long id = 100; id < 1000; id++) {
+			hotKeys.book(id);
+		}
+		for (int i = 0; i < 200; i++) {
+			hotKeys.book(42L);
+		}
+
+		assertEquals(42L, hotKeys.top(1, 10, 10).books().get(0));
+	}
+}
@@ -0,0 +1,38 @@
+package com.bookstore.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class NdjsonExportTest {
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void exportsLeaveTheSecondLevelCacheAlone() throws Exception {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		sessionFactory.getCache().evictAllRegions();
+		Statistics statistics = sessionFactory.getStatistics();
+		statistics.clear();
+
+		assertTrue(bookService.exportAllBooks(new ByteArrayOutputStream()) > 0);
+		assertTrue(authorService.exportAllAuthors(new ByteArrayOutputStream()) > 0);
+		assertEquals(0, statistics.getSecondLevelCachePutCount());
+	}
+}
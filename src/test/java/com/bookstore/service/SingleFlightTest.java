@@ -0,0 +1,83 @@
+package com.bookstore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		SingleFlight<Long, String> flight = new SingleFlight<>(Duration.ofMinutes(1), 100);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> flight.get(1L, () -> {
+					loads.incrementAndGet();
+					started.countDown();
+					await(release);
+					return new String("book 1");
+				})));
+			}
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			release.countDown();
+
+			String first = results.get(0).get(5, TimeUnit.SECONDS);
+			for (Future<String> result : results) {
+				assertSame(first, result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, loads.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void keepsResultsForTheWindowUntilForgotten() {
+		SingleFlight<Long, Integer> flight = new SingleFlight<>(Duration.ofMinutes(1), 100);
+		AtomicInteger loads = new AtomicInteger();
+
+		assertEquals(1, flight.get(1L, loads::incrementAndGet));
+		assertEquals(1, flight.get(1L, loads::incrementAndGet));
+		flight.forget(1L);
+		assertEquals(2, flight.get(1L, loads::incrementAndGet));
+	}
+
+	@Test
+	void doesNotKeepFailuresOrTrackMoreThanMaxKeys() {
+		SingleFlight<Long, Integer> flight = new SingleFlight<>(Duration.ofMinutes(1), 2);
+
+		assertThrows(IllegalStateException.class, () -> flight.get(1L, () -> {
+			throw new IllegalStateException("database down");
+		}));
+		assertEquals(7, flight.get(1L, () -> 7));
+		assertEquals(8, flight.get(2L, () -> 8));
+		assertEquals(9, flight.get(3L, () -> 9));
+		assertEquals(2, flight.size());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.WriteStatusDTO;
+import com.bookstore.dto.WriteStatusDTO.State;
+import com.bookstore.model.Book;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class WriteBehindServiceTest {
+
+	@Autowired
+	private WriteBehindService writeBehindService;
+
+	@Autowired
+	private BookService bookService;
+
+	private Long bookId;
+
+	@BeforeEach
+	void createBook() {
+		bookId = bookService.createBook(details("Queued updates test book"), 1L).getId();
+	}
+
+	@AfterEach
+	void deleteBook() {
+		bookService.deleteBook(bookId);
+	}
+
+	@Test
+	void lastQueuedUpdateOfABookWins() throws InterruptedException {
+		WriteStatusDTO first = writeBehindService.updateBook(bookId, details("First queued description")).orElseThrow();
+		WriteStatusDTO second = writeBehindService.updateBook(bookId, details("Second queued description")).orElseThrow();
+
+		assertEquals(State.APPLIED, awaitCompletion(second.getTrackingId()).getState());
+		assertNotEquals(State.QUEUED, awaitCompletion(first.getTrackingId()).getState());
+		assertEquals("Second queued description", bookService.getBookById(bookId).orElseThrow().getDescription());
+	}
+
+	@Test
+	void directUpdateReplacesAnEarlierQueuedOne() throws InterruptedException {
+		WriteStatusDTO queued;
+		writeBehindService.lock.lock();
+		try {
+			queued = writeBehindService.updateBook(bookId, details("Queued description")).orElseThrow();
+			assertTrue(writeBehindService.updateBookNow(bookId, details("Direct description")).isPresent());
+		} finally {
+			writeBehindService.lock.unlock();
+		}
+
+		assertEquals(State.SUPERSEDED, awaitCompletion(queued.getTrackingId()).getState());
+		assertEquals("Direct description", bookService.getBookById(bookId).orElseThrow().getDescription());
+		WriteStatusDTO later = writeBehindService.updateBook(bookId, details("Later queued description")).orElseThrow();
+		assertEquals(State.APPLIED, awaitCompletion(later.getTrackingId()).getState());
+		assertEquals("Later queued description", bookService.getBookById(bookId).orElseThrow().getDescription());
+	}
+
+	@Test
+	void reportsUpdatesOfMissingBooks() throws InterruptedException {
+		WriteStatusDTO queued = writeBehindService.updateBook(999_999L, details("Nobody")).orElseThrow();
+
+		assertEquals(State.NOT_FOUND, awaitCompletion(queued.getTrackingId()).getState());
+	}
+
+	private WriteStatusDTO awaitCompletion(String trackingId) throws InterruptedException {
+		for (int attempt = 0; attempt < 500; attempt++) {
+			WriteStatusDTO status = writeBehindService.getStatus(trackingId).orElseThrow();
+			if (status.getState() != State.QUEUED) {
+				return status;
+			}
+			Thread.sleep(10);
+		}
+		throw new AssertionError("Update " + trackingId + " was not applied");
+	}
+
+	private static Book details(String description) {
+		return new Book("Write-Behind Test Book", "9780000000901", description, 2024, new BigDecimal("9.99"), "Fantasy",
+				100, "Test Press");
+	}
+}